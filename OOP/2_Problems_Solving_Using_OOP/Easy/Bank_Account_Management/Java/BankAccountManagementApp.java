@@ -1,17 +1,196 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// ---------------------------- MONEY ----------------------------
+// Balances are longs counting paise (₹1 = 100 paise): exact, and as cheap as plain long math.
+// These helpers only add overflow checks and formatting.
+final class Money {
+    static final long PAISE_PER_RUPEE = 100;
+
+    private Money() {}
+
+    static long rupees(long rupees) {
+        return Math.multiplyExact(rupees, PAISE_PER_RUPEE);
+    }
+
+    static long add(long a, long b) { return Math.addExact(a, b); }
+    static long subtract(long a, long b) { return Math.subtractExact(a, b); }
+
+    // "1234.50", "-0.05"
+    static String format(long paise) {
+        long abs = Math.abs(paise);
+        long fraction = abs % PAISE_PER_RUPEE;
+        return (paise < 0 ? "-" : "") + abs / PAISE_PER_RUPEE + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
+
+// ---------------------------- TRANSACTION LOG ----------------------------
+// Append-only file of postings, 40 bytes each:
+//   [account msb][account lsb][counterparty msb][counterparty lsb][signed paise]
+// The amount is added to the account and taken from the counterparty; a deposit or withdrawal
+// has no counterparty (all zero bits). A transfer is one record, so a torn write can never
+// keep one leg without the other. Postings collect in a buffer and flush() writes and fsyncs
+// the whole batch at once (group commit): by itself once 'syncEvery' postings are waiting,
+// within 'flushMillis' of being posted, and on close(). Opening the log replays
+// it into balances and cuts off a half-written record at the end.
+class TransactionLog implements AutoCloseable {
+    private static final int RECORD_BYTES = 40;
+    private static final UUID NO_COUNTERPARTY = new UUID(0, 0);
+
+    private final FileChannel channel;
+    private final ByteBuffer pending; // holds 'syncEvery' records
+    private final Map<UUID, Long> balances = new HashMap<>();
+    private final Thread flusher;
+    private boolean open = true; // guarded by this
+
+    public TransactionLog(Path file, int syncEvery, long flushMillis) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.pending = ByteBuffer.allocate(Math.max(1, syncEvery) * RECORD_BYTES);
+
+        long valid = channel.size() / RECORD_BYTES * RECORD_BYTES; // drops a half-written last record
+        ByteBuffer in = ByteBuffer.allocate(RECORD_BYTES * 4096);
+        for (long at = 0; at < valid; at += in.limit()) {
+            in.clear().limit((int) Math.min(in.capacity(), valid - at));
+            while (in.hasRemaining()) channel.read(in, at + in.position());
+            in.flip();
+            while (in.hasRemaining()) apply(new UUID(in.getLong(), in.getLong()), new UUID(in.getLong(), in.getLong()), in.getLong());
+        }
+        channel.truncate(valid);
+        channel.position(valid);
+
+        // a quiet period must not leave postings sitting in memory. Never interrupted: an
+        // interrupt during write/force would close the channel under everyone else
+        flusher = new Thread(() -> {
+            synchronized (this) {
+                while (open) {
+                    try {
+                        wait(flushMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (open) flush();
+                }
+            }
+        }, "transaction-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public synchronized void record(UUID account, long amount) {
+        append(account, NO_COUNTERPARTY, amount);
+    }
+
+    // both legs in one record: a crash keeps the whole transfer or none of it
+    public synchronized void recordTransfer(UUID from, UUID to, long amount) {
+        append(to, from, amount);
+    }
+
+    private void append(UUID account, UUID counterparty, long amount) {
+        if (!pending.hasRemaining()) flush();
+        pending.putLong(account.getMostSignificantBits()).putLong(account.getLeastSignificantBits())
+                .putLong(counterparty.getMostSignificantBits()).putLong(counterparty.getLeastSignificantBits())
+                .putLong(amount);
+        apply(account, counterparty, amount);
+        if (!pending.hasRemaining()) flush();
+    }
+
+    private void apply(UUID account, UUID counterparty, long amount) {
+        balances.merge(account, amount, Money::add);
+        if (!counterparty.equals(NO_COUNTERPARTY)) balances.merge(counterparty, -amount, Money::add);
+    }
+
+    // null if the log has never seen the account
+    public synchronized Long balanceOf(UUID account) {
+        return balances.get(account);
+    }
+
+    public synchronized void flush() {
+        if (pending.position() == 0) return;
+        try {
+            pending.flip();
+            while (pending.hasRemaining()) channel.write(pending);
+            channel.force(false);
+            pending.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // stops the flusher, then writes whatever is still pending
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (!open) return;
+            open = false;
+            notifyAll();
+            flush();
+            channel.close();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
 
 // ---------------------------- BASE ACCOUNT ----------------------------
+// Thread-safe: every balance change happens while holding the account's own monitor.
 abstract class BankAccount {
     private final UUID accountNumber;
     private final String accountHolder;
-    protected double balance; // protected → subclasses can use it
+    protected long balance; // paise; protected → subclasses can use it
+    private TransactionLog log; // null → balance is kept in memory only
+
+    public BankAccount(String accountHolder, long openingBalance) {
+        this(UUID.randomUUID(), accountHolder, openingBalance);
+    }
 
-    public BankAccount(String accountHolder, double openingBalance) {
-        this.accountNumber = UUID.randomUUID();
+    // reopening an existing account, e.g. after a restart
+    public BankAccount(UUID accountNumber, String accountHolder, long openingBalance) {
+        this.accountNumber = accountNumber;
         this.accountHolder = accountHolder;
         this.balance = openingBalance;
     }
 
+    // an account the log already knows takes its balance from the log
+    void attachLog(TransactionLog log) {
+        Long logged = log.balanceOf(accountNumber);
+        if (logged != null) balance = logged;
+        else log.record(accountNumber, balance);
+        this.log = log;
+    }
+
+    // every balance change goes through here, so the log sees it first; caller holds the monitor
+    protected void post(long amount) {
+        long updated = Money.add(balance, amount);
+        if (log != null) log.record(accountNumber, amount);
+        balance = updated;
+    }
+
+    // for Bank.transfer, which logs both legs itself
+    void adjust(long amount) {
+        balance = Money.add(balance, amount);
+    }
+
+    // lowest the balance may go: the minimum balance, or minus the overdraft limit
+    protected abstract long lowestAllowedBalance();
+
+    boolean canDebit(long amount) {
+        return balance - amount >= lowestAllowedBalance();
+    }
+
     public UUID getAccountNumber() {
         return accountNumber;
     }
@@ -20,88 +199,113 @@ abstract class BankAccount {
         return accountHolder;
     }
 
-    public double getBalance() {
+    public synchronized long getBalance() {
         return balance;
     }
 
-    public void deposit(double amount) {
+    public synchronized void deposit(long amount) {
         if (amount <= 0) {
             System.out.println("❌ Deposit amount must be positive.");
             return;
         }
-        balance += amount;
-        System.out.println("💰 Deposited ₹" + amount + ". New Balance: ₹" + balance);
+        post(amount);
+        System.out.println("💰 Deposited ₹" + Money.format(amount) + ". New Balance: ₹" + Money.format(balance));
     }
 
     // abstract → different accounts have different withdrawal rules
-    public abstract void withdraw(double amount);
+    public abstract void withdraw(long amount); // implementations are synchronized
 }
 
 // ---------------------------- SAVINGS ACCOUNT ----------------------------
 // Rules: Minimum balance = ₹1000
 class SavingsAccount extends BankAccount {
-    private static final double MIN_BALANCE = 1000;
+    private static final long MIN_BALANCE = Money.rupees(1000);
 
-    public SavingsAccount(String accountHolder, double openingBalance) {
+    public SavingsAccount(String accountHolder, long openingBalance) {
         super(accountHolder, openingBalance);
     }
 
+    public SavingsAccount(UUID accountNumber, String accountHolder, long openingBalance) {
+        super(accountNumber, accountHolder, openingBalance);
+    }
+
     @Override
-    public void withdraw(double amount) {
+    protected long lowestAllowedBalance() {
+        return MIN_BALANCE;
+    }
+
+    @Override
+    public synchronized void withdraw(long amount) {
         if (amount <= 0) {
             System.out.println("❌ Invalid withdrawal amount.");
             return;
         }
 
-        if (balance - amount < MIN_BALANCE) {
-            System.out.println("❌ Cannot withdraw ₹" + amount +
-                    ". Min Balance of ₹" + MIN_BALANCE + " must be maintained.");
+        if (!canDebit(amount)) {
+            System.out.println("❌ Cannot withdraw ₹" + Money.format(amount) +
+                    ". Min Balance of ₹" + Money.format(MIN_BALANCE) + " must be maintained.");
             return;
         }
 
-        balance -= amount;
-        System.out.println("🟢 Withdrawn: ₹" + amount + ". Remaining Balance: ₹" + balance);
+        post(-amount);
+        System.out.println("🟢 Withdrawn: ₹" + Money.format(amount) + ". Remaining Balance: ₹" + Money.format(balance));
     }
 }
 
 // ---------------------------- CURRENT ACCOUNT ----------------------------
 // Rules: Allows overdraft up to ₹10,000
 class CurrentAccount extends BankAccount {
-    private static final double OVERDRAFT_LIMIT = -10000;
+    private static final long OVERDRAFT_LIMIT = -Money.rupees(10000);
 
-    public CurrentAccount(String accountHolder, double openingBalance) {
+    public CurrentAccount(String accountHolder, long openingBalance) {
         super(accountHolder, openingBalance);
     }
 
+    public CurrentAccount(UUID accountNumber, String accountHolder, long openingBalance) {
+        super(accountNumber, accountHolder, openingBalance);
+    }
+
+    @Override
+    protected long lowestAllowedBalance() {
+        return OVERDRAFT_LIMIT;
+    }
+
     @Override
-    public void withdraw(double amount) {
+    public synchronized void withdraw(long amount) {
         if (amount <= 0) {
             System.out.println("❌ Invalid withdrawal amount.");
             return;
         }
 
-        if (balance - amount < OVERDRAFT_LIMIT) {
-            System.out.println("❌ Overdraft limit exceeded! Cannot withdraw ₹" + amount);
+        if (!canDebit(amount)) {
+            System.out.println("❌ Overdraft limit exceeded! Cannot withdraw ₹" + Money.format(amount));
             return;
         }
 
-        balance -= amount;
-        System.out.println("🟡 Withdrawn: ₹" + amount + ". Balance is now: ₹" + balance);
+        post(-amount);
+        System.out.println("🟡 Withdrawn: ₹" + Money.format(amount) + ". Balance is now: ₹" + Money.format(balance));
     }
 }
 
 // ---------------------------- BANK ----------------------------
-class Bank {
+class Bank implements AutoCloseable {
     private final String bankName;
     private final Map<UUID, BankAccount> accounts;
+    private final TransactionLog log; // null → nothing survives a restart
 
     public Bank(String name) {
+        this(name, null);
+    }
+
+    public Bank(String name, TransactionLog log) {
         this.bankName = name;
-        this.accounts = new HashMap<>();
+        this.accounts = new ConcurrentHashMap<>();
+        this.log = log;
         System.out.println("🏦 Bank \"" + name + "\" initialized.");
     }
 
     public void createAccount(BankAccount account) {
+        if (log != null) account.attachLog(log);
         accounts.put(account.getAccountNumber(), account);
         System.out.println("🆕 Account Created for: " + account.getAccountHolder() +
                 " | Account No: " + account.getAccountNumber());
@@ -110,6 +314,210 @@ class Bank {
     public BankAccount getAccount(UUID accNo) {
         return accounts.get(accNo);
     }
+
+    // Atomic: both accounts are locked for the whole move, always lower account number first,
+    // so two transfers between the same pair in opposite directions can't deadlock. Returns
+    // false (and moves nothing) if the payer's withdrawal rule would be broken.
+    public boolean transfer(UUID from, UUID to, long amount) {
+        if (amount <= 0) throw new IllegalArgumentException("transfer amount must be positive");
+        if (from.equals(to)) throw new IllegalArgumentException("cannot transfer to the same account");
+        BankAccount payer = accounts.get(from), payee = accounts.get(to);
+        if (payer == null || payee == null) throw new IllegalArgumentException("unknown account " + (payer == null ? from : to));
+
+        BankAccount first = from.compareTo(to) < 0 ? payer : payee;
+        BankAccount second = first == payer ? payee : payer;
+        synchronized (first) {
+            synchronized (second) {
+                if (!payer.canDebit(amount)) return false;
+                Money.add(payee.balance, amount); // fail on overflow before anything is logged
+                if (log != null) log.recordTransfer(from, to, amount);
+                payer.adjust(-amount);
+                payee.adjust(amount);
+                return true;
+            }
+        }
+    }
+
+    // flushes and closes the log, so the last partial batch survives a normal exit
+    @Override
+    public void close() throws IOException {
+        if (log != null) log.close();
+    }
+}
+
+// ---------------------------- TRANSFER BENCHMARK ----------------------------
+// Run with: java TransferBenchmark
+// Payroll day: 4 corporate current accounts pay 10,000 employees while employees pay each
+// other and pay back into the corporate accounts (opposite lock order on the hot pairs).
+// 1 to 64 threads, ordered per-account locking vs one bank-wide lock. Afterwards the money
+// in the bank must be unchanged and no account may break its withdrawal rule.
+class TransferBenchmark {
+    private static final int[] THREADS = {1, 4, 16, 64};
+    private static final long RUN_MILLIS = 500;
+    private static final int CORPORATE = 4, EMPLOYEES = 10_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        run(4, false); // warm-up
+        run(4, true);
+        int problems = 0;
+        for (int threads : THREADS) {
+            long[] ordered = run(threads, false), global = run(threads, true);
+            System.out.printf("threads=%2d | ordered locks: %,10d transfers/s | bank-wide lock: %,10d transfers/s%n",
+                    threads, ordered[0], global[0]);
+            problems += ordered[1] + global[1];
+        }
+        System.out.println("conservation / rule violations: " + problems);
+        if (problems > 0) System.exit(1);
+    }
+
+    // {transfers per second, problems}
+    private static long[] run(int threads, boolean bankWideLock) throws InterruptedException {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // account-opening messages
+        Bank bank = new Bank("Benchmark Bank");
+        BankAccount[] corporate = new BankAccount[CORPORATE], employees = new BankAccount[EMPLOYEES];
+        for (int i = 0; i < CORPORATE; i++) bank.createAccount(corporate[i] = new CurrentAccount("Corp " + i, Money.rupees(1_000_000_000)));
+        for (int i = 0; i < EMPLOYEES; i++) bank.createAccount(employees[i] = new SavingsAccount("Employee " + i, Money.rupees(2_000)));
+        System.setOut(console);
+        long before = total(corporate) + total(employees);
+
+        LongAdder done = new LongAdder();
+        long deadline = System.nanoTime() + RUN_MILLIS * 1_000_000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    BankAccount from, to;
+                    int kind = rnd.nextInt(10);
+                    if (kind < 7) { // salary
+                        from = corporate[rnd.nextInt(CORPORATE)];
+                        to = employees[rnd.nextInt(EMPLOYEES)];
+                    } else if (kind < 9) { // employee to employee
+                        from = employees[rnd.nextInt(EMPLOYEES)];
+                        do to = employees[rnd.nextInt(EMPLOYEES)]; while (to == from);
+                    } else { // refunds back to a corporate account
+                        from = employees[rnd.nextInt(EMPLOYEES)];
+                        to = corporate[rnd.nextInt(CORPORATE)];
+                    }
+                    long amount = Money.rupees(1 + rnd.nextInt(kind < 7 ? 5_000 : 500));
+                    if (bankWideLock) {
+                        synchronized (bank) {
+                            bank.transfer(from.getAccountNumber(), to.getAccountNumber(), amount);
+                        }
+                    } else {
+                        bank.transfer(from.getAccountNumber(), to.getAccountNumber(), amount);
+                    }
+                    done.increment();
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) {
+            w.join(RUN_MILLIS * 20);
+            if (w.isAlive()) throw new IllegalStateException("transfer threads stuck: deadlock?");
+        }
+
+        long problems = before == total(corporate) + total(employees) ? 0 : 1;
+        for (BankAccount a : corporate) if (a.getBalance() < a.lowestAllowedBalance()) problems++;
+        for (BankAccount a : employees) if (a.getBalance() < a.lowestAllowedBalance()) problems++;
+        return new long[]{done.sum() * 1000 / RUN_MILLIS, problems};
+    }
+
+    private static long total(BankAccount[] accounts) {
+        long sum = 0;
+        for (BankAccount a : accounts) sum = Money.add(sum, a.getBalance());
+        return sum;
+    }
+}
+
+// ---------------------------- TRANSACTION LOG CHECK ----------------------------
+// Run with: java TransactionLogCheck
+// 1) Threads deposit, withdraw and transfer through a logged bank; after close() a fresh bank
+//    over the same file must come back with exactly the same balances.
+// 2) A lone posting must reach the file within the flush interval, without close().
+// 3) Cutting the file inside the last transfer record must drop both of its legs.
+class TransactionLogCheck {
+    private static final int ACCOUNTS = 50, THREADS = 4, OPS = 5_000;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("txlog");
+        Path file = dir.resolve("postings.log");
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // per-operation messages
+        int problems = 0;
+
+        UUID[] ids = new UUID[ACCOUNTS];
+        long[] expected = new long[ACCOUNTS];
+        try (Bank bank = new Bank("Check Bank", new TransactionLog(file, 64, 5))) {
+            BankAccount[] accounts = new BankAccount[ACCOUNTS];
+            for (int i = 0; i < ACCOUNTS; i++) {
+                accounts[i] = i % 2 == 0 ? new SavingsAccount("S" + i, Money.rupees(10_000))
+                        : new CurrentAccount("C" + i, Money.rupees(10_000));
+                bank.createAccount(accounts[i]);
+                ids[i] = accounts[i].getAccountNumber();
+            }
+            Thread[] workers = new Thread[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                workers[t] = new Thread(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPS; i++) {
+                        BankAccount a = accounts[rnd.nextInt(ACCOUNTS)];
+                        long amount = Money.rupees(1 + rnd.nextInt(2_000));
+                        switch (rnd.nextInt(3)) {
+                            case 0: a.deposit(amount); break;
+                            case 1: a.withdraw(amount); break;
+                            default:
+                                BankAccount b = accounts[rnd.nextInt(ACCOUNTS)];
+                                if (b != a) bank.transfer(a.getAccountNumber(), b.getAccountNumber(), amount);
+                        }
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread w : workers) w.join();
+            for (int i = 0; i < ACCOUNTS; i++) expected[i] = accounts[i].getBalance();
+        }
+        try (Bank reopened = new Bank("Check Bank", new TransactionLog(file, 64, 5))) {
+            for (int i = 0; i < ACCOUNTS; i++) {
+                BankAccount a = new SavingsAccount(ids[i], "S" + i, 0);
+                reopened.createAccount(a);
+                if (a.getBalance() != expected[i]) problems++;
+            }
+        }
+        System.setOut(console);
+        System.out.println("balances after reopening: " + (problems == 0 ? "ok" : problems + " wrong"));
+
+        // 2) time-based flush
+        long before = Files.size(file);
+        try (TransactionLog log = new TransactionLog(file, 1_000, 20)) {
+            log.record(ids[0], Money.rupees(1));
+            Thread.sleep(200);
+            boolean flushed = Files.size(file) > before;
+            System.out.println("lone posting on disk within the flush interval: " + flushed);
+            if (!flushed) problems++;
+        }
+
+        // 3) torn transfer
+        long a0, b0;
+        try (TransactionLog log = new TransactionLog(file, 64, 5)) {
+            a0 = log.balanceOf(ids[0]);
+            b0 = log.balanceOf(ids[1]);
+            log.recordTransfer(ids[0], ids[1], Money.rupees(100));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 17); // crash part-way through the record
+        }
+        try (TransactionLog log = new TransactionLog(file, 64, 5)) {
+            boolean whole = log.balanceOf(ids[0]) == a0 && log.balanceOf(ids[1]) == b0;
+            System.out.println("torn transfer dropped both legs: " + whole);
+            if (!whole) problems++;
+        }
+
+        Files.delete(file);
+        Files.delete(dir);
+        if (problems > 0) System.exit(1);
+    }
 }
 
 // ---------------------------- CLIENT CODE ----------------------------
@@ -119,23 +527,23 @@ public class BankAccountManagementApp {
         Bank bank = new Bank("Indian National Bank");
 
         // Srimani opening accounts
-        SavingsAccount savings = new SavingsAccount("Srimani", 5000);
-        CurrentAccount current = new CurrentAccount("Srimani", 2000);
+        SavingsAccount savings = new SavingsAccount("Srimani", Money.rupees(5000));
+        CurrentAccount current = new CurrentAccount("Srimani", Money.rupees(2000));
 
         bank.createAccount(savings);
         bank.createAccount(current);
 
         // Savings account — strict rules
         System.out.println("\n===== Savings Account Operations =====");
-        savings.deposit(2000);
-        savings.withdraw(1000); // allowed
-        savings.withdraw(4500); // NOT allowed due to minimum balance rule
+        savings.deposit(Money.rupees(2000));
+        savings.withdraw(Money.rupees(1000)); // allowed
+        savings.withdraw(Money.rupees(4500)); // NOT allowed due to minimum balance rule
 
         // Current account — overdraft allowed
         System.out.println("\n===== Current Account Operations =====");
-        current.deposit(3000);
-        current.withdraw(4000); // allowed (balance goes negative)
-        current.withdraw(15000); // overdraft limit exceeded
+        current.deposit(Money.rupees(3000));
+        current.withdraw(Money.rupees(4000)); // allowed (balance goes negative)
+        current.withdraw(Money.rupees(15000)); // overdraft limit exceeded
 
         // Simulating delay like your library story
         System.out.println("\n📆 Srimani is planning expenses... thinking...");
@@ -143,7 +551,17 @@ public class BankAccountManagementApp {
 
         // Continue operations
         System.out.println("\n===== More Savings Account Actions =====");
-        savings.withdraw(2000); // allowed
+        savings.withdraw(Money.rupees(2000)); // allowed
+
+        // Transfers lock both accounts, so the pair never shows a half-moved amount
+        System.out.println("\n===== Transfer Between Accounts =====");
+        long amount = Money.rupees(1500);
+        if (bank.transfer(current.getAccountNumber(), savings.getAccountNumber(), amount)) {
+            System.out.println("🔁 Moved ₹" + Money.format(amount) + " from Current to Savings. Current: ₹"
+                    + Money.format(current.getBalance()) + " | Savings: ₹" + Money.format(savings.getBalance()));
+        } else {
+            System.out.println("❌ Transfer of ₹" + Money.format(amount) + " refused by the Current account's limit.");
+        }
 
         System.out.println("\n✨ Banking session completed successfully!");
     }
@@ -1,4 +1,27 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 // ------------------------ PAYMENT STRATEGY ------------------------
 interface PaymentStrategy {
@@ -33,86 +56,409 @@ class Passenger {
     public String getName() { return name; }
 }
 
+// ------------------------ PNR GENERATOR ------------------------
+// 6-character booking references, unique across all flights. A counter is pushed through
+// n -> (n * M + C) mod 36^6, a bijection because M shares no factor with 36, so codes never
+// repeat within 36^6 (~2.1 billion) bookings yet don't read as sequential.
+final class PnrGenerator {
+    private static final long SPACE = 2_176_782_336L; // 36^6
+    private static final long MULTIPLIER = 1_299_709L; // prime, coprime with 2 and 3
+    private static final long OFFSET = 1_000_000_007L;
+    private static final AtomicLong counter = new AtomicLong();
+
+    private PnrGenerator() {}
+
+    public static String next() {
+        long code = (counter.getAndIncrement() % SPACE * MULTIPLIER + OFFSET) % SPACE;
+        char[] out = new char[6];
+        for (int i = 5; i >= 0; i--) {
+            out[i] = Character.toUpperCase(Character.forDigit((int) (code % 36), 36));
+            code /= 36;
+        }
+        return new String(out);
+    }
+}
+
 // ------------------------ TICKET ------------------------
+enum TicketStatus { HELD, CONFIRMED, RELEASED }
+
 class Ticket {
-    private final int ticketId;
+    private final int ticketId; // unique within its flight
+    private final String pnr;   // unique across flights
     private final Passenger passenger;
     private final Flight flight;
     private final String seatNumber;
+    private final double fare; // quoted when the seat was claimed
+    private TicketStatus status;
+    private volatile TimingWheel.Timeout<Ticket> expiry; // pending hold expiry, if the hold has a TTL
 
-    public Ticket(int ticketId, Passenger passenger, Flight flight, String seatNumber) {
+    public Ticket(int ticketId, String pnr, Passenger passenger, Flight flight, String seatNumber,
+                  double fare, TicketStatus status) {
         this.ticketId = ticketId;
+        this.pnr = pnr;
         this.passenger = passenger;
         this.flight = flight;
         this.seatNumber = seatNumber;
+        this.fare = fare;
+        this.status = status;
+    }
+
+    public synchronized TicketStatus getStatus() { return status; }
+    void setExpiry(TimingWheel.Timeout<Ticket> t) { this.expiry = t; }
+    TimingWheel.Timeout<Ticket> getExpiry() { return expiry; }
+
+    // HELD -> 'next' exactly once, so a payment and its timeout can't both win
+    synchronized boolean settle(TicketStatus next) {
+        if (status != TicketStatus.HELD) return false;
+        status = next;
+        return true;
+    }
+
+    // HELD or CONFIRMED -> RELEASED; false if it was already released
+    synchronized boolean cancel() {
+        if (status == TicketStatus.RELEASED) return false;
+        status = TicketStatus.RELEASED;
+        return true;
     }
 
     public int getTicketId() { return ticketId; }
+    public String getPnr() { return pnr; }
     public Passenger getPassenger() { return passenger; }
     public Flight getFlight() { return flight; }
     public String getSeatNumber() { return seatNumber; }
+    public double getFare() { return fare; }
 
     @Override
     public String toString() {
-        return "Ticket#" + ticketId + " | " + passenger.getName() +
-               " | Seat: " + seatNumber + " | Flight: " + flight.getFlightNumber();
+        return "Ticket#" + ticketId + " (PNR " + pnr + ", " + getStatus() + ") | " + passenger.getName() +
+               " | Seat: " + seatNumber + " | Fare: ₹" + fare + " | Flight: " + flight.getFlightNumber();
+    }
+}
+
+// ------------------------ SEAT MAP (lock-free) ------------------------
+// One bit per seat in an AtomicLongArray. Seat "12B" is row 12, letter B -> index
+// (12 - 1) * seatsPerRow + 1. Claiming a seat is a single CAS on its word (retried only if a
+// neighbouring seat in the same word changed meanwhile), so the seat itself is the only thing
+// two bookings can race on. Each word sits on its own cache line so busy rows don't slow
+// each other down.
+class SeatMap {
+    private static final int STRIDE = 8; // longs per 64-byte cache line
+
+    private final int capacity;
+    private final int seatsPerRow;
+    private final AtomicLongArray words;
+
+    public SeatMap(int capacity, int seatsPerRow) {
+        if (seatsPerRow < 1 || seatsPerRow > 26) throw new IllegalArgumentException("seatsPerRow must be 1..26");
+        this.capacity = capacity;
+        this.seatsPerRow = seatsPerRow;
+        this.words = new AtomicLongArray(((capacity + 63) >>> 6) * STRIDE);
+    }
+
+    public int capacity() { return capacity; }
+
+    // "12B" -> 45 (with 4 seats per row); -1 when the label is malformed or not on this aircraft
+    public int indexOf(String label) {
+        int len = label.length();
+        if (len < 2) return -1;
+        int row = 0;
+        for (int i = 0; i < len - 1; i++) {
+            char ch = label.charAt(i);
+            if (ch < '0' || ch > '9' || row > capacity) return -1;
+            row = row * 10 + (ch - '0');
+        }
+        int letter = Character.toUpperCase(label.charAt(len - 1)) - 'A';
+        if (row < 1 || letter < 0 || letter >= seatsPerRow) return -1;
+        long index = (long) (row - 1) * seatsPerRow + letter;
+        return index < capacity ? (int) index : -1;
+    }
+
+    public String labelOf(int index) {
+        return (index / seatsPerRow + 1) + String.valueOf((char) ('A' + index % seatsPerRow));
+    }
+
+    // true if this call took the seat, false if someone already holds it
+    public boolean tryClaim(int index) {
+        int w = (index >>> 6) * STRIDE;
+        long bit = 1L << index;
+        while (true) {
+            long current = words.get(w);
+            if ((current & bit) != 0) return false;
+            if (words.compareAndSet(w, current, current | bit)) return true;
+        }
+    }
+
+    // true if the seat was held and is now free again
+    public boolean release(int index) {
+        int w = (index >>> 6) * STRIDE;
+        long bit = 1L << index;
+        while (true) {
+            long current = words.get(w);
+            if ((current & bit) == 0) return false;
+            if (words.compareAndSet(w, current, current & ~bit)) return true;
+        }
     }
+
+    public boolean isTaken(int index) {
+        return (words.get((index >>> 6) * STRIDE) & (1L << index)) != 0;
+    }
+
+    // a moment-in-time count; concurrent claims may land while it is being summed
+    public int bookedCount() {
+        int count = 0;
+        for (int w = 0; w < words.length(); w += STRIDE) count += Long.bitCount(words.get(w));
+        return count;
+    }
+}
+
+// ------------------------ TICKET LISTENER (Observer) ------------------------
+interface TicketListener {
+    void onIssued(Ticket ticket);
+    void onCanceled(Ticket ticket);
 }
 
 // ------------------------ ABSTRACT FLIGHT ------------------------
 abstract class Flight {
     protected final String flightNumber;
+    protected final String origin;      // IATA airport codes, e.g. "BLR"
+    protected final String destination;
+    protected final LocalDateTime departure;
+    private final long departureEpochMillis;
     protected final int maxSeats;
-    protected final Set<String> bookedSeats = new HashSet<>();
-    protected final List<Ticket> tickets = new ArrayList<>();
-    private int nextTicketId = 1;
+    protected final SeatMap seats;
+    protected final Map<Integer, Ticket> tickets = new ConcurrentHashMap<>(); // active tickets by id
+    private final AtomicInteger nextTicketId = new AtomicInteger(1);
+    private volatile TicketListener ticketListener; // set by the reservation system
+    private volatile TimingWheel<Ticket> holdTimers; // expires TTL holds; set by the reservation system
+    private volatile FareEngine fareEngine = PriceCurveFareEngine.DEFAULT;
+    private final AtomicInteger inventoryVersion = new AtomicInteger(); // bumped on every claim / release
+    private volatile FareQuote lastQuote;
 
-    public Flight(String flightNumber, int maxSeats) {
+    public Flight(String flightNumber, String origin, String destination, LocalDateTime departure,
+                  int maxSeats, int seatsPerRow) {
         this.flightNumber = flightNumber;
+        this.origin = origin;
+        this.destination = destination;
+        this.departure = departure;
+        this.departureEpochMillis = departure.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
         this.maxSeats = maxSeats;
+        this.seats = new SeatMap(maxSeats, seatsPerRow);
     }
 
     public String getFlightNumber() { return flightNumber; }
+    public String getOrigin() { return origin; }
+    public String getDestination() { return destination; }
+    public LocalDateTime getDeparture() { return departure; }
+    public int getMaxSeats() { return maxSeats; }
+    public int getBookedSeatCount() { return seats.bookedCount(); }
+    SeatMap getSeatMap() { return seats; }
+    void setTicketListener(TicketListener l) { this.ticketListener = l; }
+    void setHoldTimers(TimingWheel<Ticket> timers) { this.holdTimers = timers; }
+
+    public Ticket getTicket(int ticketId) { return tickets.get(ticketId); }
+    public int getActiveTicketCount() { return tickets.size(); }
 
     public boolean isSeatAvailable() {
-        return bookedSeats.size() < maxSeats;
+        return seats.bookedCount() < maxSeats;
     }
 
     public abstract double getBaseFare(); // polymorphic fare logic
 
+    public void setFareEngine(FareEngine engine) {
+        this.fareEngine = engine;
+        inventoryVersion.incrementAndGet(); // drop the cached quote
+    }
+
+    // what the next seat costs right now. Served from the last quote until a seat is claimed
+    // or released (each bumps the inventory version) or another day to departure has passed.
+    public double quoteFare() {
+        long daysToDeparture = Math.floorDiv(departureEpochMillis - System.currentTimeMillis(), 86_400_000L);
+        int version = inventoryVersion.get();
+        FareQuote q = lastQuote;
+        if (q != null && q.version == version && q.daysToDeparture == daysToDeparture) return q.fare;
+        double fare = fareEngine.fare(this, seats.bookedCount(), daysToDeparture);
+        lastQuote = new FareQuote(version, daysToDeparture, fare);
+        return fare;
+    }
+
+    // safe to call from many threads: the seat's bit is claimed with one CAS before anything else
     public Ticket bookSeat(Passenger p, String seatNumber, PaymentStrategy payment) {
+        Ticket ticket = claim(p, seatNumber, TicketStatus.CONFIRMED);
+        if (ticket != null) payment.pay(ticket.getFare());
+        return ticket;
+    }
 
-        if (!isSeatAvailable()) {
-            System.out.println("⚠️ Overbooked! No seats left in flight " + flightNumber);
-            return null;
+    // claims the seat without paying; hand the ticket to a PaymentPipeline to confirm it
+    public Ticket holdSeat(Passenger p, String seatNumber) {
+        return claim(p, seatNumber, TicketStatus.HELD);
+    }
+
+    // holds the seat for 'ttlMillis' while the passenger checks out; unconfirmed holds go back on sale
+    public Ticket holdSeat(Passenger p, String seatNumber, long ttlMillis) {
+        TimingWheel<Ticket> timers = holdTimers;
+        if (timers == null) throw new IllegalStateException("Flight " + flightNumber + " is not registered with a reservation system");
+        Ticket ticket = claim(p, seatNumber, TicketStatus.HELD);
+        if (ticket != null) ticket.setExpiry(timers.schedule(ticket, ttlMillis));
+        return ticket;
+    }
+
+    // checkout: pays and confirms if the hold is still live; false once it has expired
+    public boolean confirmHold(Ticket held, PaymentStrategy payment) {
+        if (!confirmHold(held)) {
+            System.out.println("⌛ Hold on seat " + held.getSeatNumber() + " has expired");
+            return false;
         }
+        payment.pay(held.getFare());
+        return true;
+    }
 
-        if (bookedSeats.contains(seatNumber)) {
-            System.out.println("❌ Seat " + seatNumber + " already booked!");
-            return null;
+    boolean confirmHold(Ticket held) {
+        if (!held.settle(TicketStatus.CONFIRMED)) return false;
+        cancelExpiry(held);
+        return true;
+    }
+
+    // puts a held seat back on sale; false if the hold was already confirmed or released
+    boolean releaseHold(Ticket held) {
+        if (!held.settle(TicketStatus.RELEASED)) return false;
+        cancelExpiry(held);
+        if (tickets.remove(held.getTicketId(), held)) {
+            seats.release(seats.indexOf(held.getSeatNumber()));
+            inventoryVersion.incrementAndGet();
+            TicketListener l = ticketListener;
+            if (l != null) l.onCanceled(held);
         }
+        return true;
+    }
+
+    private void cancelExpiry(Ticket held) {
+        TimingWheel.Timeout<Ticket> t = held.getExpiry();
+        TimingWheel<Ticket> timers = holdTimers;
+        if (t != null && timers != null) timers.cancel(t);
+    }
 
-        bookedSeats.add(seatNumber);
+    private Ticket claim(Passenger p, String seatNumber, TicketStatus status) {
 
-        Ticket ticket = new Ticket(nextTicketId++, p, this, seatNumber);
-        tickets.add(ticket);
+        int seat = seats.indexOf(seatNumber);
+        if (seat < 0) {
+            System.out.println("❌ Seat " + seatNumber + " does not exist on flight " + flightNumber);
+            return null;
+        }
 
-        payment.pay(getBaseFare());
+        double fare = quoteFare(); // the price of this seat, before it changes the load factor
+        if (!seats.tryClaim(seat)) {
+            if (!isSeatAvailable()) {
+                System.out.println("⚠️ Overbooked! No seats left in flight " + flightNumber);
+            } else {
+                System.out.println("❌ Seat " + seatNumber + " already booked!");
+            }
+            return null;
+        }
+        inventoryVersion.incrementAndGet();
 
+        Ticket ticket = new Ticket(nextTicketId.getAndIncrement(), PnrGenerator.next(), p, this,
+                seats.labelOf(seat), fare, status);
+        tickets.put(ticket.getTicketId(), ticket);
+        TicketListener l = ticketListener;
+        if (l != null) l.onIssued(ticket);
         return ticket;
     }
 
     public void cancelTicket(Ticket ticket) {
-        bookedSeats.remove(ticket.getSeatNumber());
-        tickets.remove(ticket);
-        System.out.println("❎ Ticket " + ticket.getTicketId() + " canceled for seat " + ticket.getSeatNumber());
+        cancelTicket(ticket.getTicketId());
+    }
+
+    // O(1): one hash removal and one bit cleared; returns the canceled ticket or null
+    public Ticket cancelTicket(int ticketId) {
+        Ticket ticket = tickets.remove(ticketId);
+        if (ticket == null) {
+            System.out.println("❌ Ticket " + ticketId + " is not active on flight " + flightNumber);
+            return null;
+        }
+        ticket.cancel(); // a payment still in flight for a held seat will no longer confirm
+        cancelExpiry(ticket);
+        seats.release(seats.indexOf(ticket.getSeatNumber()));
+        inventoryVersion.incrementAndGet();
+        TicketListener l = ticketListener;
+        if (l != null) l.onCanceled(ticket);
+        System.out.println("❎ Ticket " + ticketId + " canceled for seat " + ticket.getSeatNumber());
+        return ticket;
+    }
+}
+
+// ------------------------ FARE ENGINE (dynamic pricing) ------------------------
+// Prices a seat from how full the flight is and how soon it leaves. The engine is pluggable
+// per flight; the default one precomputes a price curve per flight class once, so a quote is
+// two array reads and a multiply.
+interface FareEngine {
+    double fare(Flight flight, int seatsSold, long daysToDeparture);
+
+    // the old behaviour: every seat at the class's base fare
+    FareEngine FLAT = (flight, seatsSold, daysToDeparture) -> flight.getBaseFare();
+}
+
+// fare = base x load multiplier[seats sold] x time multiplier[days to departure], rounded to
+// the rupee; both tables are built once per flight class and shared by all its flights
+class PriceCurve {
+    static final int MAX_DAYS = 365;
+
+    private final double baseFare;
+    private final double[] byLoad; // index: seats sold, 0..maxSeats
+    private final double[] byDays; // index: days to departure, 0..MAX_DAYS
+
+    PriceCurve(double baseFare, int maxSeats) {
+        this.baseFare = baseFare;
+        this.byLoad = new double[maxSeats + 1];
+        for (int sold = 0; sold <= maxSeats; sold++) {
+            double load = (double) sold / maxSeats;
+            byLoad[sold] = 1.0 + 1.5 * load * load; // flat while empty, up to 2.5x when nearly full
+        }
+        this.byDays = new double[MAX_DAYS + 1];
+        for (int d = 0; d <= MAX_DAYS; d++) {
+            if (d >= 60) byDays[d] = 0.85;                       // early-bird
+            else if (d >= 21) byDays[d] = 1.0;
+            else if (d >= 7) byDays[d] = 1.0 + (21 - d) * 0.025; // ramps to 1.35 a week out
+            else byDays[d] = 1.35 + (7 - d) * 0.05;              // last week: up to 1.7 on the day
+        }
+    }
+
+    double fare(int seatsSold, long daysToDeparture) {
+        int sold = Math.min(Math.max(seatsSold, 0), byLoad.length - 1);
+        int days = (int) Math.min(Math.max(daysToDeparture, 0), MAX_DAYS);
+        return Math.rint(baseFare * byLoad[sold] * byDays[days]);
+    }
+}
+
+class PriceCurveFareEngine implements FareEngine {
+    static final PriceCurveFareEngine DEFAULT = new PriceCurveFareEngine();
+
+    private final Map<Class<? extends Flight>, PriceCurve> curves = new ConcurrentHashMap<>();
+
+    @Override
+    public double fare(Flight flight, int seatsSold, long daysToDeparture) {
+        PriceCurve curve = curves.computeIfAbsent(flight.getClass(),
+                k -> new PriceCurve(flight.getBaseFare(), flight.getMaxSeats()));
+        return curve.fare(seatsSold, daysToDeparture);
+    }
+}
+
+// a cached quote is valid for one seat-inventory version at one whole number of days to departure
+class FareQuote {
+    final int version;
+    final long daysToDeparture;
+    final double fare;
+
+    FareQuote(int version, long daysToDeparture, double fare) {
+        this.version = version;
+        this.daysToDeparture = daysToDeparture;
+        this.fare = fare;
     }
 }
 
 // ------------------------ SPECIFIC FLIGHTS ------------------------
 class DomesticFlight extends Flight {
-    public DomesticFlight(String number) {
-        super(number, 100);
+    public DomesticFlight(String number, String origin, String destination, LocalDateTime departure) {
+        super(number, origin, destination, departure, 100, 4); // 25 rows, A-D
     }
 
     @Override
@@ -122,8 +468,8 @@ class DomesticFlight extends Flight {
 }
 
 class InternationalFlight extends Flight {
-    public InternationalFlight(String number) {
-        super(number, 200);
+    public InternationalFlight(String number, String origin, String destination, LocalDateTime departure) {
+        super(number, origin, destination, departure, 200, 4); // 50 rows, A-D
     }
 
     @Override
@@ -134,43 +480,871 @@ class InternationalFlight extends Flight {
 
 // ------------------------ FLIGHT FACTORY ------------------------
 class FlightFactory {
-    public static Flight createFlight(String type, String number) {
+    public static Flight createFlight(String type, String number, String origin, String destination,
+                                      LocalDateTime departure) {
         switch (type.toLowerCase()) {
             case "domestic":
-                return new DomesticFlight(number);
+                return new DomesticFlight(number, origin, destination, departure);
             case "international":
-                return new InternationalFlight(number);
+                return new InternationalFlight(number, origin, destination, departure);
             default:
                 throw new IllegalArgumentException("Unknown flight type: " + type);
         }
     }
 }
 
+// ------------------------ ASYNC PAYMENTS (batched, off the booking path) ------------------------
+// A seat is held the moment it is claimed; payment happens later. Held tickets queue up, a
+// batcher groups them (by size or by a short delay) into one gateway round trip, and each
+// batch runs on its own virtual thread. A seat goes back on sale if its payment fails or
+// does not settle within the timeout, so a slow gateway no longer stalls seat claims.
+interface PaymentGateway {
+    // settles a whole batch in one round trip; result[i] is true if batch.get(i) was charged
+    boolean[] charge(List<PaymentRequest> batch) throws Exception;
+}
+
+class PaymentRequest {
+    final Ticket ticket;
+    final PaymentStrategy method;
+    final double amount;
+    final long submittedNanos = System.nanoTime();
+    final CompletableFuture<Ticket> result = new CompletableFuture<>();
+
+    PaymentRequest(Ticket ticket, PaymentStrategy method, double amount) {
+        this.ticket = ticket;
+        this.method = method;
+        this.amount = amount;
+    }
+}
+
+// local stand-in for a payment provider: fixed round-trip latency plus jitter, random declines
+class StubPaymentGateway implements PaymentGateway {
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double declineRate;
+
+    public StubPaymentGateway(long latencyMillis, long jitterMillis, double declineRate) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.declineRate = declineRate;
+    }
+
+    @Override
+    public boolean[] charge(List<PaymentRequest> batch) throws InterruptedException {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        Thread.sleep(latencyMillis + (jitterMillis > 0 ? rnd.nextLong(jitterMillis) : 0));
+        boolean[] ok = new boolean[batch.size()];
+        for (int i = 0; i < ok.length; i++) {
+            ok[i] = rnd.nextDouble() >= declineRate;
+            if (ok[i]) batch.get(i).method.pay(batch.get(i).amount);
+        }
+        return ok;
+    }
+}
+
+// counters plus a power-of-two latency histogram; cheap enough to update on every payment
+class PaymentMetrics {
+    final AtomicInteger inFlightHolds = new AtomicInteger();
+    final AtomicLong confirmed = new AtomicLong();
+    final AtomicLong declined = new AtomicLong();
+    final AtomicLong timedOut = new AtomicLong();
+    final AtomicLong lateCharges = new AtomicLong(); // charged after the hold was already released: refund due
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(64); // bucket b: [2^b, 2^(b+1)) micros
+
+    void recordLatency(long nanos) {
+        long micros = Math.max(1, nanos / 1_000);
+        latencyBuckets.incrementAndGet(63 - Long.numberOfLeadingZeros(micros));
+    }
+
+    // upper bound of the bucket holding the q-th quantile, in milliseconds
+    public double latencyPercentileMillis(double q) {
+        long total = 0;
+        for (int b = 0; b < 64; b++) total += latencyBuckets.get(b);
+        long rank = (long) Math.ceil(q * total), seen = 0;
+        for (int b = 0; b < 64; b++) {
+            seen += latencyBuckets.get(b);
+            if (total > 0 && seen >= rank) return (1L << (b + 1)) / 1_000.0;
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("in-flight holds: %d | confirmed: %d | declined: %d | timed out: %d | late charges: %d"
+                        + " | latency p50 <= %.0f ms, p99 <= %.0f ms",
+                inFlightHolds.get(), confirmed.get(), declined.get(), timedOut.get(), lateCharges.get(),
+                latencyPercentileMillis(0.50), latencyPercentileMillis(0.99));
+    }
+}
+
+class PaymentPipeline implements AutoCloseable {
+    private final PaymentGateway gateway;
+    private final int maxBatch;
+    private final long maxBatchDelayNanos;
+    private final long timeoutMillis;
+    private final BlockingQueue<PaymentRequest> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService executor = newPerTaskExecutor();
+    private final PaymentMetrics metrics = new PaymentMetrics();
+    private final Thread batcher;
+    private volatile boolean running = true;
+
+    public PaymentPipeline(PaymentGateway gateway, int maxBatch, long maxBatchDelayMillis, long timeoutMillis) {
+        this.gateway = gateway;
+        this.maxBatch = maxBatch;
+        this.maxBatchDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxBatchDelayMillis);
+        this.timeoutMillis = timeoutMillis;
+        this.batcher = new Thread(this::batchLoop, "payment-batcher");
+        batcher.setDaemon(true);
+        batcher.start();
+    }
+
+    public PaymentMetrics metrics() { return metrics; }
+
+    // 'held' must come from Flight.holdSeat; completes with the confirmed ticket, or
+    // exceptionally once the hold has been released (declined, gateway error, timeout, or
+    // canceled before the charge came back)
+    public CompletableFuture<Ticket> submit(Ticket held, PaymentStrategy method) {
+        PaymentRequest request = new PaymentRequest(held, method, held.getFare());
+        metrics.inFlightHolds.incrementAndGet();
+        request.result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((t, error) -> {
+            metrics.inFlightHolds.decrementAndGet();
+            metrics.recordLatency(System.nanoTime() - request.submittedNanos);
+            if (error instanceof TimeoutException && held.getFlight().releaseHold(held)) {
+                metrics.timedOut.incrementAndGet();
+            }
+        });
+        queue.add(request);
+        return request.result;
+    }
+
+    private void batchLoop() {
+        List<PaymentRequest> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PaymentRequest first = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + maxBatchDelayNanos;
+                while (batch.size() < maxBatch) {
+                    long wait = deadline - System.nanoTime();
+                    if (wait <= 0 || queue.drainTo(batch, maxBatch - batch.size()) == 0
+                            && !pollInto(batch, wait)) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            List<PaymentRequest> submitted = new ArrayList<>(batch);
+            batch.clear();
+            executor.execute(() -> settle(submitted));
+        }
+    }
+
+    private boolean pollInto(List<PaymentRequest> batch, long waitNanos) throws InterruptedException {
+        PaymentRequest next = queue.poll(waitNanos, TimeUnit.NANOSECONDS);
+        if (next == null) return false;
+        batch.add(next);
+        return true;
+    }
+
+    private void settle(List<PaymentRequest> batch) {
+        boolean[] ok;
+        try {
+            ok = gateway.charge(batch);
+        } catch (Exception e) {
+            ok = new boolean[batch.size()]; // gateway error: treat the whole batch as declined
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            PaymentRequest r = batch.get(i);
+            Flight flight = r.ticket.getFlight();
+            if (ok[i]) {
+                if (flight.confirmHold(r.ticket)) {
+                    metrics.confirmed.incrementAndGet();
+                    r.result.complete(r.ticket);
+                } else {
+                    metrics.lateCharges.incrementAndGet(); // hold already expired; money must go back
+                    r.result.completeExceptionally(new IllegalStateException("hold on " + r.ticket.getPnr()
+                            + " was released before the charge went through"));
+                }
+            } else {
+                if (flight.releaseHold(r.ticket)) metrics.declined.incrementAndGet();
+                r.result.completeExceptionally(new IllegalStateException("payment declined for " + r.ticket.getPnr()));
+            }
+        }
+    }
+
+    // waits for everything already submitted to settle, then stops the batcher
+    @Override
+    public void close() {
+        running = false;
+        try {
+            batcher.join();
+            executor.shutdown();
+            executor.awaitTermination(timeoutMillis * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // virtual thread per task where the runtime has them (Java 21+), otherwise a cached pool
+    private static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "payment-worker");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
+
+// ------------------------ TIMING WHEEL (hold expiry) ------------------------
+// Hierarchical timing wheel: 4 levels of 256 slots. Level 0 slots are one tick wide, each
+// level above is 256x coarser, so 4 levels span 2^32 ticks. A timer sits in an intrusive
+// doubly-linked slot list, so scheduling and cancelling are O(1) pointer updates. Advancing a
+// tick expires one level-0 slot; every 256 ticks the next level-1 slot is redistributed
+// downwards (and so on up), so each timer moves at most 3 times before it fires.
+class TimingWheel<T> {
+    private static final int LEVELS = 4, BITS = 8, SLOTS = 1 << BITS, MASK = SLOTS - 1;
+    private static final long MAX_TICKS = (1L << (LEVELS * BITS)) - 1;
+
+    // one scheduled item; also its own list node
+    static final class Timeout<T> {
+        final T item;
+        final long deadlineTick;
+        private Timeout<T> prev, next;
+        private boolean linked;
+
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long tickMillis;
+    private final Consumer<T> onExpiry;
+    private final Timeout<T>[][] slots; // per-slot sentinel heads of circular lists
+    private final long startMillis;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long tickMillis, long startMillis, Consumer<T> onExpiry) {
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.onExpiry = onExpiry;
+        this.slots = new Timeout[LEVELS][SLOTS];
+        for (Timeout<T>[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                Timeout<T> head = new Timeout<>(null, -1);
+                head.prev = head.next = head;
+                level[i] = head;
+            }
+        }
+    }
+
+    public Timeout<T> schedule(T item, long delayMillis) {
+        return schedule(item, delayMillis, System.currentTimeMillis());
+    }
+
+    // the deadline is measured from 'nowMillis', not from currentTick, which lags the clock by
+    // up to a tick plus however late the ticker runs; rounded up so an item never expires early
+    public synchronized Timeout<T> schedule(T item, long delayMillis, long nowMillis) {
+        long dueTick = Math.floorDiv(nowMillis - startMillis + Math.max(0, delayMillis) + tickMillis - 1, tickMillis);
+        long deadline = Math.min(currentTick + MAX_TICKS, Math.max(currentTick + 1, dueTick));
+        Timeout<T> t = new Timeout<>(item, deadline);
+        place(t);
+        size++;
+        return t;
+    }
+
+    // false if the timeout already fired or was cancelled
+    public synchronized boolean cancel(Timeout<T> t) {
+        if (!t.linked) return false;
+        unlink(t);
+        size--;
+        return true;
+    }
+
+    public synchronized int size() { return size; }
+
+    // runs expiry callbacks (outside the lock) for everything due at or before 'nowMillis'
+    public void advanceTo(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        synchronized (this) {
+            long target = (nowMillis - startMillis) / tickMillis;
+            while (currentTick < target) {
+                currentTick++;
+                int index = (int) (currentTick & MASK);
+                if (index == 0) cascade(1);
+                Timeout<T> head = slots[0][index];
+                while (head.next != head) {
+                    Timeout<T> t = head.next;
+                    unlink(t);
+                    size--;
+                    expired.add(t.item);
+                }
+            }
+        }
+        for (T item : expired) onExpiry.accept(item);
+    }
+
+    // starts a daemon thread that advances the wheel in real time
+    public Thread startTicker(String name) {
+        Thread ticker = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                advanceTo(System.currentTimeMillis());
+                try {
+                    Thread.sleep(tickMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, name);
+        ticker.setDaemon(true);
+        ticker.start();
+        return ticker;
+    }
+
+    // redistributes the level slot the clock just entered; higher levels first when they roll too
+    private void cascade(int level) {
+        if (level >= LEVELS) return;
+        int index = (int) ((currentTick >>> (level * BITS)) & MASK);
+        if (index == 0) cascade(level + 1);
+        Timeout<T> head = slots[level][index];
+        while (head.next != head) {
+            Timeout<T> t = head.next;
+            unlink(t);
+            place(t);
+        }
+    }
+
+    private void place(Timeout<T> t) {
+        long delta = Math.max(0, t.deadlineTick - currentTick);
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * BITS)) level++;
+        Timeout<T> head = slots[level][(int) ((t.deadlineTick >>> (level * BITS)) & MASK)];
+        t.prev = head.prev;
+        t.next = head;
+        head.prev.next = t;
+        head.prev = t;
+        t.linked = true;
+    }
+
+    private void unlink(Timeout<T> t) {
+        t.prev.next = t.next;
+        t.next.prev = t.prev;
+        t.prev = t.next = null;
+        t.linked = false;
+    }
+}
+
+// ------------------------ FLIGHT INDEX (schedule lookups) ------------------------
+// Primary index by flight number plus two secondary ones: (origin, destination, day) for route
+// searches and (origin, day) for a departures board. Each lookup is one hash probe; the
+// per-key lists are copy-on-write because a schedule is read far more often than changed.
+class FlightIndex {
+    private final Map<String, Flight> byNumber = new ConcurrentHashMap<>();
+    private final Map<RouteDay, List<Flight>> byRouteDay = new ConcurrentHashMap<>();
+    private final Map<RouteDay, List<Flight>> byOriginDay = new ConcurrentHashMap<>();
+
+    // false if a flight with the same number is already indexed
+    public boolean add(Flight f) {
+        if (byNumber.putIfAbsent(f.getFlightNumber(), f) != null) return false;
+        LocalDate day = f.getDeparture().toLocalDate();
+        byRouteDay.computeIfAbsent(new RouteDay(f.getOrigin(), f.getDestination(), day),
+                k -> new CopyOnWriteArrayList<>()).add(f);
+        byOriginDay.computeIfAbsent(new RouteDay(f.getOrigin(), null, day),
+                k -> new CopyOnWriteArrayList<>()).add(f);
+        return true;
+    }
+
+    public Flight byNumber(String flightNumber) {
+        return byNumber.get(flightNumber);
+    }
+
+    public List<Flight> between(String origin, String destination, LocalDate day) {
+        return readOnly(byRouteDay.get(new RouteDay(origin, destination, day)));
+    }
+
+    public List<Flight> departingFrom(String origin, LocalDate day) {
+        return readOnly(byOriginDay.get(new RouteDay(origin, null, day)));
+    }
+
+    public int size() { return byNumber.size(); }
+
+    private static List<Flight> readOnly(List<Flight> flights) {
+        return flights == null ? Collections.emptyList() : Collections.unmodifiableList(flights);
+    }
+
+    // composite key; destination is null in the departures-board index
+    private static final class RouteDay {
+        private final String origin;
+        private final String destination;
+        private final LocalDate day;
+
+        RouteDay(String origin, String destination, LocalDate day) {
+            this.origin = origin;
+            this.destination = destination;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RouteDay)) return false;
+            RouteDay other = (RouteDay) o;
+            return origin.equals(other.origin) && Objects.equals(destination, other.destination)
+                    && day.equals(other.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return (origin.hashCode() * 31 + Objects.hashCode(destination)) * 31 + day.hashCode();
+        }
+    }
+}
+
 // ------------------------ AIRLINE (COMPOSITION ROOT) ------------------------
-class AirlineReservationSystem {
-    private final List<Flight> flights = new ArrayList<>();
+class AirlineReservationSystem implements TicketListener, AutoCloseable {
+    private final Queue<Flight> flights = new ConcurrentLinkedQueue<>(); // schedule order, for reports
+    private final FlightIndex index = new FlightIndex();
+    private final Map<String, Ticket> ticketsByPnr = new ConcurrentHashMap<>();
+    private final AtomicLong expiredHolds = new AtomicLong();
+    private final TimingWheel<Ticket> holdTimers = new TimingWheel<>(10, System.currentTimeMillis(), held -> {
+        if (held.getFlight().releaseHold(held)) expiredHolds.incrementAndGet();
+    });
+
+    private final Thread ticker;
+
+    public AirlineReservationSystem() {
+        ticker = holdTimers.startTicker("seat-hold-expiry");
+    }
 
     public void addFlight(Flight f) {
+        if (!index.add(f)) throw new IllegalArgumentException("Duplicate flight number: " + f.getFlightNumber());
         flights.add(f);
+        f.setTicketListener(this);
+        f.setHoldTimers(holdTimers);
+    }
+
+    public int getOutstandingHoldCount() { return holdTimers.size(); }
+    public long getExpiredHoldCount() { return expiredHolds.get(); }
+
+    @Override
+    public void onIssued(Ticket ticket) {
+        ticketsByPnr.put(ticket.getPnr(), ticket);
+    }
+
+    @Override
+    public void onCanceled(Ticket ticket) {
+        ticketsByPnr.remove(ticket.getPnr());
+    }
+
+    public Ticket findByPnr(String pnr) {
+        return ticketsByPnr.get(pnr);
+    }
+
+    // cancels wherever the booking lives; null if no active ticket has this PNR
+    public Ticket cancelByPnr(String pnr) {
+        Ticket ticket = ticketsByPnr.get(pnr);
+        return ticket == null ? null : ticket.getFlight().cancelTicket(ticket.getTicketId());
     }
 
     public Flight findFlight(String flightNumber) {
+        return index.byNumber(flightNumber);
+    }
+
+    // flights from 'origin' to 'destination' leaving on 'day'
+    public List<Flight> searchFlights(String origin, String destination, LocalDate day) {
+        return index.between(origin, destination, day);
+    }
+
+    public List<Flight> departures(String origin, LocalDate day) {
+        return index.departingFrom(origin, day);
+    }
+
+    // reference scans, kept for the benchmark and as the definition of each lookup
+    Flight findFlightByScan(String flightNumber) {
         return flights.stream()
                 .filter(f -> f.getFlightNumber().equals(flightNumber))
                 .findFirst()
                 .orElse(null);
     }
+
+    List<Flight> searchFlightsByScan(String origin, String destination, LocalDate day) {
+        return flights.stream()
+                .filter(f -> f.getOrigin().equals(origin) && f.getDestination().equals(destination)
+                        && f.getDeparture().toLocalDate().equals(day))
+                .collect(Collectors.toList());
+    }
+
+    // stops the expiry ticker; holds still outstanding stay claimed until confirmed or canceled
+    @Override
+    public void close() {
+        ticker.interrupt();
+        try {
+            ticker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
+
+// ------------------------ SEAT MAP STRESS TEST ------------------------
+// Run with: java SeatMapStressTest
+// 1) Many threads race for every seat of one flight: each seat must be sold exactly once.
+// 2) Threads claim and release disjoint seat ranges: throughput should grow with threads.
+class SeatMapStressTest {
+    private static final PaymentStrategy SILENT = amount -> { };
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        boolean ok = true;
+
+        // 1) contention: every thread tries to book every seat, in a different order
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // losers print "already booked"
+        for (int round = 0; round < 20; round++) {
+            Flight flight = new InternationalFlight("ST" + round, "BLR", "SIN", LocalDateTime.now());
+            AtomicInteger sold = new AtomicInteger();
+            runConcurrently(threads, t -> {
+                Passenger p = new Passenger(t, "P" + t);
+                for (int i = 0; i < flight.getMaxSeats(); i++) {
+                    String seat = flight.getSeatMap().labelOf((i * 7 + t * 13) % flight.getMaxSeats());
+                    if (flight.bookSeat(p, seat, SILENT) != null) sold.incrementAndGet();
+                }
+            });
+            Set<String> distinct = new HashSet<>();
+            for (Ticket ticket : flight.tickets.values()) distinct.add(ticket.getSeatNumber());
+            if (sold.get() != flight.getMaxSeats() || distinct.size() != flight.getMaxSeats()
+                    || flight.getBookedSeatCount() != flight.getMaxSeats()) {
+                console.println("round " + round + ": OVERSOLD or lost seats -> sold=" + sold.get()
+                        + " distinct=" + distinct.size() + " booked=" + flight.getBookedSeatCount());
+                ok = false;
+            }
+        }
+        System.setOut(console);
+        System.out.println("contention: 20 flights x " + threads + " threads -> " + (ok ? "every seat sold exactly once" : "FAILED"));
+
+        // 2) scaling on distinct seats: each thread owns a 64-aligned slice of one large map
+        int perThread = 1 << 16, rounds = 50;
+        for (int n = 1; n <= threads; n *= 2) {
+            SeatMap map = new SeatMap(perThread * n, 26);
+            long t0 = System.nanoTime();
+            runConcurrently(n, t -> {
+                int from = t * perThread;
+                for (int r = 0; r < rounds; r++) {
+                    for (int i = from; i < from + perThread; i++) map.tryClaim(i);
+                    for (int i = from; i < from + perThread; i++) map.release(i);
+                }
+            });
+            double seconds = (System.nanoTime() - t0) / 1e9;
+            System.out.printf("threads=%2d | %,14.0f claim+release/sec%n", n, (double) n * perThread * rounds / seconds);
+        }
+        if (!ok) System.exit(1);
+    }
+
+    private interface Worker { void run(int thread); }
+
+    private static void runConcurrently(int n, Worker worker) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] all = new Thread[n];
+        for (int t = 0; t < n; t++) {
+            int id = t;
+            all[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                worker.run(id);
+            });
+            all[t].start();
+        }
+        start.countDown();
+        for (Thread t : all) t.join();
+    }
+}
+
+// ------------------------ FLIGHT SEARCH BENCHMARK ------------------------
+// Run with: java FlightSearchBenchmark
+// Builds a 100k-flight schedule (40 airports, 60 days) and times flight-number lookups and
+// route searches through the indexes against the original stream scans.
+class FlightSearchBenchmark {
+    public static void main(String[] args) {
+        int flights = 100_000, queries = 20_000, scanQueries = 200;
+        String[] airports = new String[40];
+        for (int i = 0; i < airports.length; i++) airports[i] = "A" + (char) ('A' + i / 26) + (char) ('A' + i % 26);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 6, 0);
+
+        Random rnd = new Random(42);
+        AirlineReservationSystem system = new AirlineReservationSystem();
+        for (int i = 0; i < flights; i++) {
+            String from = airports[rnd.nextInt(airports.length)];
+            String to = airports[rnd.nextInt(airports.length)];
+            LocalDateTime when = start.plusDays(rnd.nextInt(60)).plusMinutes(rnd.nextInt(18 * 60));
+            system.addFlight(FlightFactory.createFlight(i % 5 == 0 ? "international" : "domestic",
+                    "FL" + i, from, to, when));
+        }
+
+        String[] numbers = new String[queries];
+        String[][] routes = new String[queries][];
+        LocalDate[] days = new LocalDate[queries];
+        for (int i = 0; i < queries; i++) {
+            numbers[i] = "FL" + rnd.nextInt(flights);
+            routes[i] = new String[] { airports[rnd.nextInt(airports.length)], airports[rnd.nextInt(airports.length)] };
+            days[i] = start.toLocalDate().plusDays(rnd.nextInt(60));
+        }
+
+        // warm up and cross-check both paths
+        long mismatches = 0, found = 0;
+        for (int i = 0; i < scanQueries; i++) {
+            if (system.findFlight(numbers[i]) != system.findFlightByScan(numbers[i])) mismatches++;
+            List<Flight> indexed = system.searchFlights(routes[i][0], routes[i][1], days[i]);
+            if (!new HashSet<>(indexed).equals(new HashSet<>(system.searchFlightsByScan(routes[i][0], routes[i][1], days[i])))) {
+                mismatches++;
+            }
+        }
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < queries; i++) if (system.findFlight(numbers[i]) != null) found++;
+        long indexNumberNs = (System.nanoTime() - t0) / queries;
+        t0 = System.nanoTime();
+        for (int i = 0; i < queries; i++) found += system.searchFlights(routes[i][0], routes[i][1], days[i]).size();
+        long indexRouteNs = (System.nanoTime() - t0) / queries;
+
+        t0 = System.nanoTime();
+        for (int i = 0; i < scanQueries; i++) if (system.findFlightByScan(numbers[i]) != null) found++;
+        long scanNumberNs = (System.nanoTime() - t0) / scanQueries;
+        t0 = System.nanoTime();
+        for (int i = 0; i < scanQueries; i++) found += system.searchFlightsByScan(routes[i][0], routes[i][1], days[i]).size();
+        long scanRouteNs = (System.nanoTime() - t0) / scanQueries;
+
+        System.out.printf("flights=%,d | by number: index %,d ns vs scan %,d ns | by route+day: index %,d ns vs scan %,d ns%n",
+                flights, indexNumberNs, scanNumberNs, indexRouteNs, scanRouteNs);
+        System.out.println("mismatches: " + mismatches + " (found " + found + ")");
+        system.close();
+        if (mismatches > 0) System.exit(1);
+    }
+}
+
+// ------------------------ PAYMENT PIPELINE DEMO ------------------------
+// Run with: java PaymentPipelineDemo
+// The same 8 booking threads sell seats against a 40 ms gateway, first paying inline
+// (bookSeat) and then through the batched pipeline, and compare seat-claim throughput.
+// Declines and timeouts must put their seats back on sale.
+class PaymentPipelineDemo {
+    private static final PaymentStrategy SILENT = amount -> { };
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = 8, perThread = 100;
+        StubPaymentGateway gateway = new StubPaymentGateway(40, 30, 0.05);
+
+        AirlineReservationSystem inline = newSystem(threads);
+        long t0 = System.nanoTime();
+        runBookers(threads, (t, i) -> {
+            Flight f = inline.findFlight("PD" + t);
+            Ticket ticket = f.holdSeat(new Passenger(i, "P" + i), f.getSeatMap().labelOf(i));
+            try {
+                boolean ok = gateway.charge(List.of(new PaymentRequest(ticket, SILENT, ticket.getFare())))[0];
+                if (ok) f.confirmHold(ticket);
+                else f.releaseHold(ticket);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, perThread);
+        double inlineRate = threads * perThread * 1e9 / (System.nanoTime() - t0);
+        inline.close();
+
+        AirlineReservationSystem async = newSystem(threads);
+        List<CompletableFuture<Ticket>> results = Collections.synchronizedList(new ArrayList<>());
+        PaymentPipeline pipeline = new PaymentPipeline(gateway, 64, 5, 200);
+        t0 = System.nanoTime();
+        runBookers(threads, (t, i) -> {
+            Flight f = async.findFlight("PD" + t);
+            Ticket ticket = f.holdSeat(new Passenger(i, "P" + i), f.getSeatMap().labelOf(i));
+            results.add(pipeline.submit(ticket, SILENT));
+        }, perThread);
+        double asyncRate = threads * perThread * 1e9 / (System.nanoTime() - t0);
+        System.out.println("right after claiming: " + pipeline.metrics());
+        pipeline.close();
+
+        int confirmed = 0, sold = 0;
+        for (CompletableFuture<Ticket> r : results) if (!r.isCompletedExceptionally() && r.isDone()) confirmed++;
+        for (int t = 0; t < threads; t++) sold += async.findFlight("PD" + t).getBookedSeatCount();
+        async.close();
+        System.out.println("after settling:       " + pipeline.metrics());
+        System.out.printf("seat claims/sec: inline payment %,.0f | async pipeline %,.0f (x%.0f)%n",
+                inlineRate, asyncRate, asyncRate / inlineRate);
+        System.out.println("confirmed tickets: " + confirmed + " | seats still sold: " + sold
+                + (confirmed == sold ? " (failed holds released)" : " (MISMATCH)"));
+        boolean settled = canceledHoldSettlesPromptly(gateway);
+        System.out.println("hold canceled mid-charge settles its future promptly: " + settled);
+        if (confirmed != sold || pipeline.metrics().inFlightHolds.get() != 0 || !settled) System.exit(1);
+    }
+
+    // the charge succeeds after the passenger canceled: the future must fail right away rather
+    // than wait out the pipeline's (here 10 s) timeout
+    private static boolean canceledHoldSettlesPromptly(StubPaymentGateway gateway) throws InterruptedException {
+        try (AirlineReservationSystem system = newSystem(1);
+             PaymentPipeline pipeline = new PaymentPipeline(gateway, 1, 0, 10_000)) {
+            Flight f = system.findFlight("PD0");
+            Ticket ticket = f.holdSeat(new Passenger(1, "P1"), f.getSeatMap().labelOf(0));
+            CompletableFuture<Ticket> result = pipeline.submit(ticket, SILENT);
+            PrintStream console = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            f.cancelTicket(ticket);
+            System.setOut(console);
+            try {
+                result.get(2, TimeUnit.SECONDS);
+                return false;
+            } catch (ExecutionException e) {
+                return e.getCause() instanceof IllegalStateException;
+            } catch (TimeoutException e) {
+                return false;
+            }
+        }
+    }
+
+    private static AirlineReservationSystem newSystem(int flights) {
+        AirlineReservationSystem system = new AirlineReservationSystem();
+        for (int t = 0; t < flights; t++) {
+            system.addFlight(new InternationalFlight("PD" + t, "BLR", "SIN", LocalDateTime.now().plusDays(7)));
+        }
+        return system;
+    }
+
+    private interface Booking { void book(int thread, int i); }
+
+    private static void runBookers(int threads, Booking booking, int perThread) throws InterruptedException {
+        Thread[] all = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            all[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) booking.book(id, i);
+            });
+            all[t].start();
+        }
+        for (Thread t : all) t.join();
+    }
+}
+
+// ------------------------ TIMING WHEEL BENCHMARK ------------------------
+// Run with: java TimingWheelBenchmark
+// Drives a wheel on a virtual clock: 2M holds with TTLs from 1 s to 15 min, half of them
+// cancelled (checkouts), then time runs out and the rest must expire exactly once, on time.
+class TimingWheelBenchmark {
+    public static void main(String[] args) {
+        int holds = 2_000_000;
+        long[] late = new long[1];
+        long[] expiredCount = new long[1];
+        long[] clock = new long[1];
+        TimingWheel<long[]> wheel = new TimingWheel<>(10, 0, deadline -> {
+            expiredCount[0]++;
+            if (clock[0] - deadline[0] > 10 || clock[0] < deadline[0]) late[0]++; // must fire within one tick
+        });
+
+        Random rnd = new Random(7);
+        List<TimingWheel.Timeout<long[]>> timeouts = new ArrayList<>(holds);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < holds; i++) {
+            long ttl = 1_000 + rnd.nextInt(15 * 60_000);
+            timeouts.add(wheel.schedule(new long[] { ttl }, ttl, clock[0]));
+        }
+        long scheduleNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        int cancelled = 0;
+        for (int i = 0; i < holds; i += 2) if (wheel.cancel(timeouts.get(i))) cancelled++;
+        long cancelNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        for (clock[0] = 0; clock[0] <= 16 * 60_000; clock[0] += 10) wheel.advanceTo(clock[0]);
+        long expireNs = System.nanoTime() - t0;
+
+        System.out.printf("schedule: %,d ns/op | cancel: %,d ns/op | expire: %,d ns/op (incl. %,d idle ticks)%n",
+                scheduleNs / holds, cancelNs / cancelled, expireNs / Math.max(1, expiredCount[0]), 16 * 60_000 / 10);
+        System.out.println("expired " + expiredCount[0] + " of " + (holds - cancelled) + " | off-time: " + late[0]
+                + " | left: " + wheel.size());
+        boolean early = firesEarlyWhenTickerLags();
+        System.out.println("hold scheduled while the ticker lags fires early: " + early);
+        if (expiredCount[0] != holds - cancelled || late[0] > 0 || wheel.size() != 0 || early) System.exit(1);
+    }
+
+    // the ticker last ran at 0 ms; a 50 ms hold placed at 95 ms must still be live at 140 ms
+    private static boolean firesEarlyWhenTickerLags() {
+        long[] firedAt = {-1};
+        long[] clock = new long[1];
+        TimingWheel<String> wheel = new TimingWheel<>(10, 0, item -> firedAt[0] = clock[0]);
+        wheel.schedule("hold", 50, 95);
+        for (clock[0] = 0; clock[0] <= 200; clock[0] += 10) wheel.advanceTo(clock[0]);
+        return firedAt[0] < 145;
+    }
+}
+
+// ------------------------ FARE QUOTE BENCHMARK ------------------------
+// Run with: java FareQuoteBenchmark
+// A search page quotes every flight in the result set. Times quoting 10k flights from cache,
+// then with a seat sold between every quote so each flight's cache keeps getting invalidated.
+class FareQuoteBenchmark {
+    private static final PaymentStrategy SILENT = amount -> { };
+
+    public static void main(String[] args) {
+        int flights = 10_000, pages = 200;
+        Flight[] all = new Flight[flights];
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < flights; i++) {
+            all[i] = i % 2 == 0 ? new DomesticFlight("DF" + i, "BLR", "BOM", now.plusDays(i % 90))
+                    : new InternationalFlight("IF" + i, "BLR", "SIN", now.plusDays(i % 90));
+        }
+
+        double sum = 0;
+        for (int p = 0; p < pages; p++) for (Flight f : all) sum += f.quoteFare(); // warm up
+        long t0 = System.nanoTime();
+        for (int p = 0; p < pages; p++) for (Flight f : all) sum += f.quoteFare();
+        long cachedNs = System.nanoTime() - t0;
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        Passenger p = new Passenger(1, "Load");
+        int seatCursor = 0, sold = 0;
+        t0 = System.nanoTime();
+        for (int round = 0; round < 20; round++, seatCursor++) {
+            for (Flight f : all) {
+                if (f.bookSeat(p, f.getSeatMap().labelOf(seatCursor), SILENT) != null) sold++;
+                sum += f.quoteFare();
+            }
+        }
+        long soldNs = System.nanoTime() - t0;
+        System.setOut(console);
+
+        Flight sample = all[1];
+        System.out.printf("cached quote: %,.1f ns | quote after a sale (book + requote): %,.0f ns | checksum %.0f%n",
+                (double) cachedNs / (pages * (long) flights), (double) soldNs / sold, sum);
+        System.out.println(sample.getFlightNumber() + " after " + sample.getBookedSeatCount() + " sales, departing "
+                + sample.getDeparture().toLocalDate() + ": ₹" + sample.quoteFare() + " (base ₹" + sample.getBaseFare() + ")");
+    }
 }
 
 // ------------------------ MAIN SIMULATION ------------------------
 public class AirlineApp {
     public static void main(String[] args) {
 
-        AirlineReservationSystem system = new AirlineReservationSystem();
+        try (AirlineReservationSystem system = new AirlineReservationSystem()) {
+            run(system);
+        }
+    }
 
+    private static void run(AirlineReservationSystem system) {
         // Flights created using factory
-        Flight domestic = FlightFactory.createFlight("domestic", "AI123");
-        Flight international = FlightFactory.createFlight("international", "AI999");
+        LocalDateTime today = LocalDate.now().atTime(9, 30);
+        Flight domestic = FlightFactory.createFlight("domestic", "AI123", "BLR", "BOM", today);
+        Flight international = FlightFactory.createFlight("international", "AI999", "BLR", "SIN", today.plusDays(14));
 
         system.addFlight(domestic);
         system.addFlight(international);
@@ -187,5 +1361,33 @@ public class AirlineApp {
 
         System.out.println("\n--- Trying to re-book same seat ---");
         domestic.bookSeat(srimani, "12B", new UPIPayment()); // will show error
+
+        if (t2 != null) {
+            System.out.println("\n--- Looking up and canceling by PNR ---");
+            System.out.println("Found: " + system.findByPnr(t2.getPnr()));
+            system.cancelByPnr(t2.getPnr());
+            System.out.println("Still on file? " + (system.findByPnr(t2.getPnr()) != null) + " | status: " + t2.getStatus());
+        }
+
+        System.out.println("\n--- Holding a seat during checkout ---");
+        Passenger kiran = new Passenger(2, "Kiran");
+        Ticket hold = domestic.holdSeat(kiran, "3C", 100);
+        System.out.println("Held: " + hold);
+        try {
+            Thread.sleep(250); // Kiran gets distracted...
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        domestic.confirmHold(hold, new CardPayment());
+        System.out.println("Expired holds: " + system.getExpiredHoldCount() + " | seat 3C booked again: "
+                + (domestic.bookSeat(kiran, "3C", new CardPayment()) != null));
+        Ticket abandoned = domestic.holdSeat(kiran, "4C", 60_000);
+        domestic.cancelTicket(abandoned);
+        System.out.println("Holds still ticking after canceling 4C: " + system.getOutstandingHoldCount());
+
+        System.out.println("\n--- Searching BLR -> BOM today ---");
+        for (Flight f : system.searchFlights("BLR", "BOM", today.toLocalDate())) {
+            System.out.println(f.getFlightNumber() + " departs " + f.getDeparture());
+        }
     }
 }
@@ -1,34 +1,159 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// ===================== Money (fixed-point paise) =====================
+// Amounts are plain longs counting paise (1 rupee = 100 paise), so balances add and compare
+// exactly, with no binary-fraction drift and nothing allocated. Money only holds the
+// arithmetic: overflow throws instead of wrapping, and every step that can produce a fraction
+// of a paisa rounds half-up (0.5 paise and above goes away from zero).
+final class Money {
+    static final long PAISE_PER_RUPEE = 100;
+
+    private Money() {}
+
+    static long rupees(long rupees) {
+        return Math.multiplyExact(rupees, PAISE_PER_RUPEE);
+    }
+
+    static long of(long rupees, int paise) {
+        if (paise < 0 || paise >= PAISE_PER_RUPEE) throw new IllegalArgumentException("paise must be 0-99: " + paise);
+        return Math.addExact(rupees(rupees), rupees < 0 ? -paise : paise);
+    }
+
+    static long add(long a, long b) { return Math.addExact(a, b); }
+    static long subtract(long a, long b) { return Math.subtractExact(a, b); }
+    static long times(long amount, long n) { return Math.multiplyExact(amount, n); }
+
+    // amount * numerator / denominator, rounded half-up; e.g. interest = percentOf(...)
+    static long mulDiv(long amount, long numerator, long denominator) {
+        long product = Math.multiplyExact(amount, numerator);
+        long quotient = product / denominator, remainder = product % denominator;
+        if (Math.abs(remainder) * 2 >= Math.abs(denominator)) quotient += (product < 0) == (denominator < 0) ? 1 : -1;
+        return quotient;
+    }
+
+    // rate in basis points (1% = 100 bp)
+    static long percentOf(long amount, long basisPoints) {
+        return mulDiv(amount, basisPoints, 10_000);
+    }
+
+    // for results of floating-point formulas (EMI); rounds half-up to the paisa
+    static long fromRupees(double rupees) {
+        if (Double.isNaN(rupees) || Math.abs(rupees) >= Long.MAX_VALUE / PAISE_PER_RUPEE) {
+            throw new ArithmeticException("not a representable amount: " + rupees);
+        }
+        double paise = rupees * PAISE_PER_RUPEE;
+        return (long) (paise < 0 ? -Math.floor(-paise + 0.5) : Math.floor(paise + 0.5));
+    }
+
+    static double toRupees(long paise) {
+        return paise / (double) PAISE_PER_RUPEE;
+    }
+
+    // "1234.50", "-0.05"
+    static String format(long paise) {
+        long abs = Math.abs(paise); // Long.MIN_VALUE never comes out of the exact operations above
+        long fraction = abs % PAISE_PER_RUPEE;
+        return (paise < 0 ? "-" : "") + abs / PAISE_PER_RUPEE + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    // exact inverse of format; at most two decimals
+    static long parse(String text) {
+        String s = text.trim();
+        boolean negative = s.startsWith("-");
+        if (negative) s = s.substring(1);
+        int dot = s.indexOf('.');
+        String whole = dot < 0 ? s : s.substring(0, dot), fraction = dot < 0 ? "" : s.substring(dot + 1);
+        if (whole.isEmpty() || fraction.length() > 2 || !(whole + fraction).chars().allMatch(Character::isDigit)) {
+            throw new NumberFormatException("not an amount: " + text);
+        }
+        long paise = of(Long.parseLong(whole), fraction.isEmpty() ? 0 : Integer.parseInt((fraction + "0").substring(0, 2)));
+        return negative ? -paise : paise;
+    }
+}
 
 abstract class Account {
     private static int idCounter = 1;
 
     private final int accountId;
+    private final boolean reopened; // id came from storage rather than this process's counter
     private String holderName;
-    protected double balance;
+    protected long balance; // paise
+    private TransactionJournal journal; // null: balance lives in memory only
 
-    public Account(String holderName, double initialBalance) {
-        this.accountId = idCounter++;
+    public Account(String holderName, long initialBalance) {
+        this.accountId = nextId();
+        this.reopened = false;
         this.holderName = holderName;
         this.balance = initialBalance;
     }
 
+    // reopening an existing account after a restart, under the id it was journaled with;
+    // its balance comes from the journal once attached
+    public Account(int accountId, String holderName) {
+        reserveId(accountId);
+        this.accountId = accountId;
+        this.reopened = true;
+        this.holderName = holderName;
+    }
+
+    private static synchronized int nextId() { return idCounter++; }
+
+    // new accounts must never be handed an id a reopened one already uses
+    private static synchronized void reserveId(int accountId) {
+        if (accountId < 1) throw new IllegalArgumentException("account ids start at 1: " + accountId);
+        idCounter = Math.max(idCounter, accountId + 1);
+    }
+
+    // from now on every posting is journaled before it changes the balance. A reopened account
+    // takes its balance from the journal; a new one is opened in it. Either way a mismatch
+    // throws, so one customer can never pick up another's journaled balance
+    public void attachJournal(TransactionJournal journal) {
+        boolean known = journal.isKnown(accountId);
+        if (reopened) {
+            if (!known) throw new IllegalStateException("account " + accountId + " is not in the journal");
+            balance = journal.balanceOf(accountId);
+        } else {
+            if (known) throw new IllegalStateException("account " + accountId
+                    + " is already in the journal; reopen it with its persisted id before opening new accounts");
+            journal.append(accountId, TransactionJournal.OPEN, balance);
+        }
+        this.journal = journal;
+    }
+
     public int getAccountId() { return accountId; }
     public String getHolderName() { return holderName; }
-    public double getBalance() { return balance; }
+    public long getBalance() { return balance; }
 
-    public void deposit(double amount) {
-        balance += amount;
-        System.out.println(holderName + " deposited ₹" + amount + ". Current balance: ₹" + balance);
+    public void deposit(long amount) {
+        long updated = Money.add(balance, amount);
+        if (journal != null) journal.append(accountId, TransactionJournal.DEPOSIT, amount);
+        balance = updated;
+        System.out.println(holderName + " deposited ₹" + Money.format(amount) + ". Current balance: ₹" + Money.format(balance));
     }
 
-    public boolean withdraw(double amount) {
+    public boolean withdraw(long amount) {
         if (amount > balance) {
             System.out.println("❌ Insufficient balance for " + holderName);
             return false;
         }
-        balance -= amount;
-        System.out.println(holderName + " withdrew ₹" + amount + ". Current balance: ₹" + balance);
+        if (journal != null) journal.append(accountId, TransactionJournal.WITHDRAW, amount);
+        balance = Money.subtract(balance, amount);
+        System.out.println(holderName + " withdrew ₹" + Money.format(amount) + ". Current balance: ₹" + Money.format(balance));
         return true;
     }
 
@@ -37,10 +162,14 @@ abstract class Account {
 
 // Savings Account
 class SavingsAccount extends Account {
-    public SavingsAccount(String holderName, double initialBalance) {
+    public SavingsAccount(String holderName, long initialBalance) {
         super(holderName, initialBalance);
     }
 
+    public SavingsAccount(int accountId, String holderName) {
+        super(accountId, holderName);
+    }
+
     @Override
     public void displayAccountType() {
         System.out.println(getHolderName() + " has a Savings Account.");
@@ -49,10 +178,14 @@ class SavingsAccount extends Account {
 
 // Current Account
 class CurrentAccount extends Account {
-    public CurrentAccount(String holderName, double initialBalance) {
+    public CurrentAccount(String holderName, long initialBalance) {
         super(holderName, initialBalance);
     }
 
+    public CurrentAccount(int accountId, String holderName) {
+        super(accountId, holderName);
+    }
+
     @Override
     public void displayAccountType() {
         System.out.println(getHolderName() + " has a Current Account.");
@@ -64,35 +197,40 @@ abstract class Loan {
     private static int loanCounter = 1;
 
     protected final int loanId;
-    protected double principal;
+    protected long principal; // paise
     protected double interestRate; // per year
     protected int tenureMonths;
     protected Account linkedAccount;
 
-    protected double amountPaid = 0;
+    protected long amountPaid = 0; // paise
+    private final long emi; // fixed for the life of the loan
 
-    public Loan(Account account, double principal, double interestRate, int tenureMonths) {
+    public Loan(Account account, long principal, double interestRate, int tenureMonths) {
         this.loanId = loanCounter++;
         this.linkedAccount = account;
         this.principal = principal;
         this.interestRate = interestRate;
         this.tenureMonths = tenureMonths;
+        this.emi = AmortizationEngine.emi(principal, interestRate, tenureMonths);
     }
 
-    public abstract double calculateEMI();
+    // monthly instalment in paise, rounded half-up to the paisa
+    public long calculateEMI() {
+        return emi;
+    }
 
-    public void payEMI(double amount) {
+    public void payEMI(long amount) {
         if (amount > linkedAccount.getBalance()) {
             System.out.println("❌ Not enough balance to pay EMI.");
             return;
         }
         linkedAccount.withdraw(amount);
-        amountPaid += amount;
-        System.out.println("EMI of ₹" + amount + " paid for Loan #" + loanId + ". Total paid: ₹" + amountPaid);
+        amountPaid = Money.add(amountPaid, amount);
+        System.out.println("EMI of ₹" + Money.format(amount) + " paid for Loan #" + loanId + ". Total paid: ₹" + Money.format(amountPaid));
     }
 
-    public double getOutstandingAmount() {
-        double totalPayable = calculateEMI() * tenureMonths;
+    public long getOutstandingAmount() {
+        long totalPayable = Money.times(calculateEMI(), tenureMonths);
         return Math.max(0, totalPayable - amountPaid);
     }
 
@@ -100,47 +238,837 @@ abstract class Loan {
     public Account getLinkedAccount() { return linkedAccount; }
 
     public void printLoanDetails() {
-        System.out.println("Loan ID: " + loanId + " | Principal: ₹" + principal + " | Interest Rate: " + interestRate + "% | Tenure: " + tenureMonths + " months");
-        System.out.println("Outstanding Amount: ₹" + getOutstandingAmount());
+        System.out.println("Loan ID: " + loanId + " | Principal: ₹" + Money.format(principal) + " | Interest Rate: " + interestRate + "% | Tenure: " + tenureMonths + " months");
+        System.out.println("Outstanding Amount: ₹" + Money.format(getOutstandingAmount()));
     }
 }
 
 // Personal Loan
 class PersonalLoan extends Loan {
-    public PersonalLoan(Account account, double principal, int tenureMonths) {
+    public PersonalLoan(Account account, long principal, int tenureMonths) {
         super(account, principal, 12.0, tenureMonths); // 12% interest
     }
-
-    @Override
-    public double calculateEMI() {
-        double monthlyRate = interestRate / (12 * 100);
-        return (principal * monthlyRate * Math.pow(1 + monthlyRate, tenureMonths)) / (Math.pow(1 + monthlyRate, tenureMonths) - 1);
-    }
 }
 
 // Home Loan
 class HomeLoan extends Loan {
-    public HomeLoan(Account account, double principal, int tenureMonths) {
+    public HomeLoan(Account account, long principal, int tenureMonths) {
         super(account, principal, 8.5, tenureMonths); // 8.5% interest
     }
-
-    @Override
-    public double calculateEMI() {
-        double monthlyRate = interestRate / (12 * 100);
-        return (principal * monthlyRate * Math.pow(1 + monthlyRate, tenureMonths)) / (Math.pow(1 + monthlyRate, tenureMonths) - 1);
-    }
 }
 
 // Vehicle Loan
 class VehicleLoan extends Loan {
-    public VehicleLoan(Account account, double principal, int tenureMonths) {
+    public VehicleLoan(Account account, long principal, int tenureMonths) {
         super(account, principal, 10.5, tenureMonths); // 10.5% interest
     }
+}
+
+// ===================== Transaction Journal (memory-mapped, append-only) =====================
+// Every posting is appended as a fixed 32-byte record to pre-allocated segment files mapped
+// into memory, so an append is a few stores into the page cache with no system call:
+//
+//   [seq: long][account: int][kind: int][amount: long][check: long]
+//
+// Durability is a group commit: a flusher thread forces the written range to disk every
+// syncEveryRecords postings or syncIntervalMillis, whichever comes first, and one force covers
+// every posting appended since the last. awaitDurable(seq) blocks until a posting is on disk.
+// The journal also keeps each account's balance. It writes them to a snapshot every
+// snapshotEveryRecords postings and then deletes the segments the snapshot covers, so a
+// restart replays at most one snapshot interval. Recovery stops at the first record that is
+// unwritten, torn (bad check) or out of sequence, and zeroes whatever follows it.
+class TransactionJournal implements AutoCloseable {
+    static final int OPEN = 1, DEPOSIT = 2, WITHDRAW = 3;
+    static final int RECORD_BYTES = 32;
+    private static final int SNAPSHOT_MAGIC = 0x4C444752; // "LDGR"
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final int syncEveryRecords;
+    private final long syncIntervalNanos;
+    private final long snapshotEveryRecords;
+
+    // guarded by 'this'
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private int position, dirtyFrom;
+    private long nextSeq = 1;
+    private long[] balances = new long[64];
+    private final List<MappedByteBuffer> sealedUnforced = new ArrayList<>();
+    private final TreeMap<Integer, Long> lastSeqOfSealed = new TreeMap<>();
+    private MappedByteBuffer spare; // next segment, created and paged in by the flusher
+    private boolean closed;
+
+    private volatile long durableSeq;
+    private volatile long snapshotSeq;
+    private final Object durable = new Object();
+    private final Object snapshotLock = new Object(); // one snapshot written at a time
+    private final Object syncLock = new Object();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public TransactionJournal(Path dir, int segmentBytes, int syncEveryRecords, long syncIntervalMillis,
+                              long snapshotEveryRecords) throws IOException {
+        if (segmentBytes % RECORD_BYTES != 0) throw new IllegalArgumentException("segmentBytes must be a multiple of " + RECORD_BYTES);
+        this.dir = Files.createDirectories(dir);
+        this.segmentBytes = segmentBytes;
+        this.syncEveryRecords = syncEveryRecords;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        this.snapshotEveryRecords = snapshotEveryRecords;
+        Arrays.fill(balances, UNKNOWN);
+        recover();
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public static TransactionJournal open(Path dir) throws IOException {
+        return new TransactionJournal(dir, 64 << 20, 4_096, 2, 4_000_000);
+    }
 
+    // the posting's sequence number; durable once awaitDurable(seq) returns
+    public synchronized long append(int account, int kind, long amount) {
+        if (closed) throw new IllegalStateException("journal is closed");
+        if (kind != OPEN && !isKnown(account)) throw new IllegalArgumentException("account " + account + " was never opened");
+        if (position == segmentBytes) roll();
+        long seq = nextSeq++;
+        write(segment, position, seq, account, kind, amount);
+        position += RECORD_BYTES;
+        apply(account, kind, amount);
+        if (seq - durableSeq >= syncEveryRecords) LockSupport.unpark(flusher);
+        return seq;
+    }
+
+    public void awaitDurable(long seq) throws InterruptedException {
+        if (durableSeq >= seq) return;
+        LockSupport.unpark(flusher);
+        synchronized (durable) {
+            while (durableSeq < seq) durable.wait();
+        }
+    }
+
+    public synchronized boolean isKnown(int account) {
+        return account < balances.length && balances[account] != UNKNOWN;
+    }
+
+    public synchronized long balanceOf(int account) {
+        if (!isKnown(account)) throw new IllegalArgumentException("account " + account + " was never opened");
+        return balances[account];
+    }
+
+    public synchronized long lastSeq() { return nextSeq - 1; }
+    public long durableSeq() { return durableSeq; }
+    public long snapshotSeq() { return snapshotSeq; }
+
+    // ---- group commit ----
+
+    private void flushLoop() {
+        while (running) {
+            LockSupport.parkNanos(syncIntervalNanos);
+            try {
+                sync();
+                if (lastSeq() - snapshotSeq >= snapshotEveryRecords) snapshot();
+                prepareSpare();
+            } catch (IOException | UncheckedIOException e) {
+                e.printStackTrace(); // postings stay in the page cache; the next round retries
+            }
+        }
+    }
+
+    // forces everything appended so far, then wakes awaitDurable callers. One sync at a time:
+    // if two overlapped, the later could publish its durableSeq while the earlier range was
+    // still being forced
+    private void sync() {
+        synchronized (syncLock) {
+            forceDirty();
+        }
+    }
+
+    private void forceDirty() {
+        MappedByteBuffer current;
+        List<MappedByteBuffer> sealed;
+        int from, to;
+        long upTo;
+        synchronized (this) {
+            upTo = nextSeq - 1;
+            if (upTo == durableSeq) return;
+            current = segment;
+            from = dirtyFrom;
+            to = position;
+            dirtyFrom = position;
+            sealed = new ArrayList<>(sealedUnforced);
+            sealedUnforced.clear();
+        }
+        for (MappedByteBuffer b : sealed) b.force();
+        if (to > from) current.force(from, to - from);
+        synchronized (durable) {
+            durableSeq = Math.max(durableSeq, upTo);
+            durable.notifyAll();
+        }
+    }
+
+    // balances as of one sequence number, written only once that sequence is durable
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            writeSnapshot();
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        long seq;
+        long[] copy;
+        synchronized (this) {
+            seq = nextSeq - 1;
+            copy = balances.clone();
+        }
+        sync();
+        int known = 0;
+        for (long b : copy) if (b != UNKNOWN) known++;
+        ByteBuffer out = ByteBuffer.allocate(16 + known * 12);
+        out.putInt(SNAPSHOT_MAGIC).putLong(seq).putInt(known);
+        for (int account = 0; account < copy.length; account++) {
+            if (copy[account] != UNKNOWN) out.putInt(account).putLong(copy[account]);
+        }
+        out.flip();
+        Path tmp = dir.resolve("snapshot.tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) ch.write(out);
+            ch.force(true);
+        }
+        Files.move(tmp, dir.resolve("snapshot.bin"), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        snapshotSeq = seq;
+
+        List<Integer> covered = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<Integer, Long> e : lastSeqOfSealed.entrySet()) {
+                if (e.getValue() <= seq) covered.add(e.getKey());
+            }
+            covered.forEach(lastSeqOfSealed::remove);
+        }
+        for (int index : covered) Files.deleteIfExists(segmentFile(index));
+    }
+
+    // ---- segments ----
+
+    private void roll() {
+        sealedUnforced.add(segment);
+        lastSeqOfSealed.put(segmentIndex, nextSeq - 1);
+        segmentIndex++;
+        if (spare != null) {
+            segment = spare;
+            spare = null;
+        } else {
+            segment = mapSegment(segmentIndex, true);
+        }
+        position = 0;
+        dirtyFrom = 0;
+    }
+
+    private void prepareSpare() {
+        int index;
+        synchronized (this) {
+            if (spare != null || closed) return;
+            index = segmentIndex + 1;
+        }
+        MappedByteBuffer next = mapSegment(index, true);
+        synchronized (this) {
+            if (spare == null && segmentIndex + 1 == index) spare = next;
+        }
+    }
+
+    // creates the file at full size; 'touch' faults its pages in now rather than on append
+    private MappedByteBuffer mapSegment(int index, boolean touch) {
+        try (FileChannel ch = FileChannel.open(segmentFile(index), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (ch.size() < segmentBytes) {
+                ch.position(segmentBytes - 1);
+                ch.write(ByteBuffer.wrap(new byte[1]));
+            }
+            MappedByteBuffer buffer = ch.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            if (touch) {
+                for (int i = 0; i < segmentBytes; i += 4096) buffer.get(i);
+            }
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentFile(int index) {
+        return dir.resolve(String.format("journal-%08d.seg", index));
+    }
+
+    // ---- records ----
+
+    private static long check(long seq, int account, int kind, long amount) {
+        long h = seq * 0x9E3779B97F4A7C15L ^ ((long) account << 32 | kind) * 0xC2B2AE3D27D4EB4FL ^ amount;
+        h ^= h >>> 31;
+        return h | 1; // never 0, so a zeroed slot can't pass
+    }
+
+    private static void write(MappedByteBuffer b, int at, long seq, int account, int kind, long amount) {
+        b.putLong(at, seq);
+        b.putInt(at + 8, account);
+        b.putInt(at + 12, kind);
+        b.putLong(at + 16, amount);
+        b.putLong(at + 24, check(seq, account, kind, amount));
+    }
+
+    private void apply(int account, int kind, long amount) {
+        if (account >= balances.length) {
+            int old = balances.length;
+            balances = Arrays.copyOf(balances, Math.max(account + 1, old * 2));
+            Arrays.fill(balances, old, balances.length, UNKNOWN);
+        }
+        switch (kind) {
+            case OPEN: balances[account] = amount; break;
+            case DEPOSIT: balances[account] = Money.add(balances[account], amount); break;
+            case WITHDRAW: balances[account] = Money.subtract(balances[account], amount); break;
+            default: throw new IllegalStateException("unknown record kind " + kind);
+        }
+    }
+
+    // ---- startup ----
+
+    private void recover() throws IOException {
+        Path snap = dir.resolve("snapshot.bin");
+        long fromSnapshot = 0;
+        if (Files.exists(snap)) {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(snap));
+            if (in.getInt() != SNAPSHOT_MAGIC) throw new IOException("not a journal snapshot: " + snap);
+            fromSnapshot = in.getLong();
+            for (int n = in.getInt(); n > 0; n--) apply(in.getInt(), OPEN, in.getLong());
+        }
+        snapshotSeq = fromSnapshot;
+        nextSeq = fromSnapshot + 1;
+
+        List<Integer> indexes = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "journal-*.seg")) {
+            for (Path f : files) {
+                String name = f.getFileName().toString();
+                indexes.add(Integer.parseInt(name.substring(8, name.length() - 4)));
+            }
+        }
+        Collections.sort(indexes);
+        boolean broken = false;
+        for (int index : indexes) {
+            if (broken) { // nothing after a gap can be trusted
+                Files.delete(segmentFile(index));
+                continue;
+            }
+            MappedByteBuffer b = mapSegment(index, false);
+            int at = 0;
+            for (; at < segmentBytes; at += RECORD_BYTES) {
+                long seq = b.getLong(at);
+                int account = b.getInt(at + 8), kind = b.getInt(at + 12);
+                long amount = b.getLong(at + 16);
+                if (seq == 0 || b.getLong(at + 24) != check(seq, account, kind, amount)) break;
+                if (seq < nextSeq) continue; // already in the snapshot
+                if (seq != nextSeq) break;
+                apply(account, kind, amount);
+                nextSeq = seq + 1;
+            }
+            if (segment != null) {
+                sealedUnforced.add(segment);
+                lastSeqOfSealed.put(segmentIndex, nextSeq - 1);
+            }
+            segment = b;
+            segmentIndex = index;
+            position = at;
+            if (at < segmentBytes) {
+                broken = true;
+                // every slot, not just up to the first empty one: a lost page can leave a gap with
+                // intact stale records behind it, which later appends would otherwise reconnect
+                for (int z = at; z < segmentBytes; z += RECORD_BYTES) {
+                    if (b.getLong(z) == 0) continue;
+                    for (int w = 0; w < RECORD_BYTES; w += 8) b.putLong(z + w, 0);
+                }
+                b.force();
+            }
+        }
+        if (segment == null) segment = mapSegment(segmentIndex = 1, true);
+        dirtyFrom = position;
+        durableSeq = nextSeq - 1;
+    }
+
+    // forces everything to disk and stops the flusher; balances stay readable
     @Override
-    public double calculateEMI() {
-        double monthlyRate = interestRate / (12 * 100);
-        return (principal * monthlyRate * Math.pow(1 + monthlyRate, tenureMonths)) / (Math.pow(1 + monthlyRate, tenureMonths) - 1);
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sync();
+    }
+}
+
+// ===================== Amortization (batch EMI + schedules) =====================
+// Loans stored column-wise for batch work: one primitive array per field, one index per loan.
+class LoanBook {
+    long[] principal = new long[1024];  // paise
+    int[] rateBasisPoints = new int[1024]; // annual rate, 1% = 100
+    int[] tenureMonths = new int[1024];
+    int[] monthsPaid = new int[1024];
+    private int size;
+
+    public int add(long principal, int rateBasisPoints, int tenureMonths, int monthsPaid) {
+        if (tenureMonths <= 0 || monthsPaid < 0 || monthsPaid > tenureMonths) {
+            throw new IllegalArgumentException("need 0 <= monthsPaid <= tenureMonths and tenureMonths > 0");
+        }
+        if (size == this.principal.length) {
+            int capacity = size * 2;
+            this.principal = Arrays.copyOf(this.principal, capacity);
+            this.rateBasisPoints = Arrays.copyOf(this.rateBasisPoints, capacity);
+            this.tenureMonths = Arrays.copyOf(this.tenureMonths, capacity);
+            this.monthsPaid = Arrays.copyOf(this.monthsPaid, capacity);
+        }
+        this.principal[size] = principal;
+        this.rateBasisPoints[size] = rateBasisPoints;
+        this.tenureMonths[size] = tenureMonths;
+        this.monthsPaid[size] = monthsPaid;
+        return size++;
+    }
+
+    public int add(Loan loan, int monthsPaid) {
+        return add(loan.principal, AmortizationEngine.basisPoints(loan.interestRate), loan.tenureMonths, monthsPaid);
+    }
+
+    public int size() { return size; }
+}
+
+// receives one instalment of one loan's schedule; called from worker threads, loans in
+// parallel but each loan's months in order on one thread
+interface ScheduleVisitor {
+    void instalment(int loan, int month, long interest, long principalPart, long closingBalance);
+}
+
+// EMI = P * r * (1+r)^n / ((1+r)^n - 1), with r the monthly rate. Everything except P depends
+// only on (rate, tenure), and a portfolio has few distinct pairs, so that factor is computed
+// once per pair and each loan's EMI is a single multiply. Schedules are then walked in exact
+// paise: interest = balance * annual bp / 120000 rounded half-up, the rest of the EMI repays
+// principal, and the last month pays off whatever is left so every schedule closes at zero.
+// Batch passes split the book into chunks run on a ForkJoinPool.
+class AmortizationEngine {
+    private static final int CHUNK = 16_384;
+    private static final Map<Long, Double> SHARED_FACTORS = new ConcurrentHashMap<>(); // for single loans
+
+    private final ForkJoinPool pool;
+
+    public AmortizationEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public AmortizationEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    static int basisPoints(double annualRatePercent) {
+        return (int) Math.round(annualRatePercent * 100);
+    }
+
+    // EMI multiplier per rupee of principal
+    static double factor(int rateBasisPoints, int tenureMonths) {
+        if (rateBasisPoints == 0) return 1.0 / tenureMonths;
+        double r = rateBasisPoints / 120_000.0;
+        double growth = Math.pow(1 + r, tenureMonths);
+        return r * growth / (growth - 1);
+    }
+
+    // the single-loan path (Loan.calculateEMI); factors are shared across loans
+    static long emi(long principal, double annualRatePercent, int tenureMonths) {
+        int bp = basisPoints(annualRatePercent);
+        double f = SHARED_FACTORS.computeIfAbsent(((long) bp << 32) | tenureMonths, k -> factor(bp, tenureMonths));
+        return Money.fromRupees(Money.toRupees(principal) * f);
+    }
+
+    public long[] computeEmis(LoanBook book) {
+        int n = book.size();
+        int[] pair = new int[n];
+        double[] factors = distinctFactors(book, pair);
+        long[] emis = new long[n];
+        forEachChunk(n, (from, to) -> {
+            for (int i = from; i < to; i++) emis[i] = Money.fromRupees(Money.toRupees(book.principal[i]) * factors[pair[i]]);
+        });
+        return emis;
+    }
+
+    // principal still owed after each loan's monthsPaid instalments
+    public long[] outstandingPrincipal(LoanBook book, long[] emis) {
+        long[] outstanding = new long[book.size()];
+        forEachChunk(book.size(), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                long balance = book.principal[i];
+                int bp = book.rateBasisPoints[i], tenure = book.tenureMonths[i];
+                for (int m = 1; m <= book.monthsPaid[i]; m++) {
+                    balance -= principalPart(balance, Money.mulDiv(balance, bp, 120_000), emis[i], m == tenure);
+                }
+                outstanding[i] = balance;
+            }
+        });
+        return outstanding;
+    }
+
+    // every instalment of every loan, month 1 to tenure
+    public void forEachSchedule(LoanBook book, long[] emis, ScheduleVisitor visitor) {
+        forEachChunk(book.size(), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                long balance = book.principal[i];
+                int bp = book.rateBasisPoints[i], tenure = book.tenureMonths[i];
+                for (int m = 1; m <= tenure; m++) {
+                    long interest = Money.mulDiv(balance, bp, 120_000);
+                    long repaid = principalPart(balance, interest, emis[i], m == tenure);
+                    balance -= repaid;
+                    visitor.instalment(i, m, interest, repaid, balance);
+                }
+            }
+        });
+    }
+
+    private static long principalPart(long balance, long interest, long emi, boolean lastMonth) {
+        return lastMonth ? balance : Math.max(0, Math.min(balance, emi - interest));
+    }
+
+    // one factor per distinct (rate, tenure); pair[i] says which one loan i uses
+    private static double[] distinctFactors(LoanBook book, int[] pair) {
+        Map<Long, Integer> index = new HashMap<>();
+        double[] factors = new double[16];
+        for (int i = 0; i < book.size(); i++) {
+            long key = ((long) book.rateBasisPoints[i] << 32) | book.tenureMonths[i];
+            Integer known = index.get(key);
+            if (known == null) {
+                known = index.size();
+                index.put(key, known);
+                if (known == factors.length) factors = Arrays.copyOf(factors, known * 2);
+                factors[known] = factor(book.rateBasisPoints[i], book.tenureMonths[i]);
+            }
+            pair[i] = known;
+        }
+        return factors;
+    }
+
+    private interface ChunkBody {
+        void run(int from, int to);
+    }
+
+    private void forEachChunk(int size, ChunkBody body) {
+        List<RecursiveAction> chunks = new ArrayList<>();
+        for (int from = 0; from < size; from += CHUNK) {
+            int start = from, end = Math.min(size, from + CHUNK);
+            chunks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    body.run(start, end);
+                }
+            });
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(chunks);
+            }
+        });
+    }
+}
+
+// ===================== Money check =====================
+// Run with: java MoneyCheck
+// Rounding and round-trip rules, the drift a double ledger accumulates over 10M postings of
+// ₹0.10, and the cost of Money arithmetic against raw double adds.
+class MoneyCheck {
+    public static void main(String[] args) {
+        int failures = 0;
+        failures += expect(Money.mulDiv(5, 1, 2), 3);      // 2.5 paise -> 3
+        failures += expect(Money.mulDiv(-5, 1, 2), -3);    // half away from zero
+        failures += expect(Money.mulDiv(7, 1, 3), 2);
+        failures += expect(Money.percentOf(Money.rupees(1_000), 850), Money.rupees(85)); // 8.5%
+        failures += expect(Money.fromRupees(0.1 + 0.2), 30);
+        failures += expect(Money.fromRupees(-0.125), -13);  // exactly 12.5 paise, away from zero
+        failures += expect(Money.parse(Money.format(Money.of(-3, 5))), -305);
+        failures += expect(Money.parse("12.5"), 1_250);
+        try {
+            Money.add(Long.MAX_VALUE, 1);
+            failures++;
+        } catch (ArithmeticException expected) {
+            // overflow must not wrap
+        }
+
+        int postings = 10_000_000;
+        double asDouble = 0;
+        long asPaise = 0;
+        for (int i = 0; i < postings; i++) {
+            asDouble += 0.10;
+            asPaise = Money.add(asPaise, 10);
+        }
+        System.out.printf("%,d x ₹0.10: double ledger ₹%.6f (off by ₹%.6f) | Money ₹%s%n",
+                postings, asDouble, asDouble - postings / 10.0, Money.format(asPaise));
+
+        for (int round = 0; round < 3; round++) { // the first rounds warm up
+            long t0 = System.nanoTime();
+            double d = 0;
+            for (int i = 0; i < postings; i++) d += (i & 1023) * 0.01;
+            long doubleNs = System.nanoTime() - t0;
+            t0 = System.nanoTime();
+            long m = 0;
+            for (int i = 0; i < postings; i++) m = Money.add(m, i & 1023);
+            long moneyNs = System.nanoTime() - t0;
+            if (round == 2) {
+                System.out.printf("per posting: double %.2f ns | Money %.2f ns (checksums %.0f / %d)%n",
+                        doubleNs / (double) postings, moneyNs / (double) postings, d, m);
+            }
+        }
+        System.out.println("rounding failures: " + failures);
+        if (failures > 0) System.exit(1);
+    }
+
+    private static int expect(long actual, long expected) {
+        if (actual == expected) return 0;
+        System.out.println("expected " + expected + " but got " + actual);
+        return 1;
+    }
+}
+
+// ===================== Amortization benchmark =====================
+// Run with: java AmortizationBenchmark
+// 2M loans over 40 rates x 30 tenures: per-loan EMI with two Math.pow calls (the old
+// calculateEMI) vs the engine's batch pass, then a revaluation (principal outstanding after
+// the months already paid) and full month-by-month schedules for 500k loans, checking every
+// schedule closes at exactly zero.
+class AmortizationBenchmark {
+    public static void main(String[] args) {
+        Random rnd = new Random(23);
+        LoanBook book = new LoanBook();
+        for (int i = 0; i < 2_000_000; i++) {
+            int tenure = 12 * (1 + rnd.nextInt(30));
+            book.add(Money.rupees(50_000 + rnd.nextInt(5_000_000)), 650 + 25 * rnd.nextInt(40), tenure, rnd.nextInt(tenure + 1));
+        }
+        AmortizationEngine engine = new AmortizationEngine();
+
+        long[] naive = new long[book.size()], emis = null;
+        long naiveNs = 0, batchNs = 0;
+        for (int round = 0; round < 3; round++) { // the first rounds warm up
+            long t0 = System.nanoTime();
+            for (int i = 0; i < book.size(); i++) {
+                double monthlyRate = book.rateBasisPoints[i] / 100.0 / (12 * 100);
+                naive[i] = Money.fromRupees((Money.toRupees(book.principal[i]) * monthlyRate * Math.pow(1 + monthlyRate, book.tenureMonths[i]))
+                        / (Math.pow(1 + monthlyRate, book.tenureMonths[i]) - 1));
+            }
+            naiveNs = System.nanoTime() - t0;
+            t0 = System.nanoTime();
+            emis = engine.computeEmis(book);
+            batchNs = System.nanoTime() - t0;
+        }
+        long maxDiff = 0;
+        for (int i = 0; i < book.size(); i++) maxDiff = Math.max(maxDiff, Math.abs(naive[i] - emis[i]));
+        System.out.printf("EMIs for %,d loans: per-loan pow %,d ms | batch %,d ms | max difference %d paise%n",
+                book.size(), naiveNs / 1_000_000, batchNs / 1_000_000, maxDiff);
+
+        long t0 = System.nanoTime();
+        long[] outstanding = engine.outstandingPrincipal(book, emis);
+        long revalueNs = System.nanoTime() - t0;
+        long portfolio = 0;
+        for (long o : outstanding) portfolio = Money.add(portfolio, o);
+        System.out.printf("revaluation: %,d ms | principal outstanding ₹%s%n", revalueNs / 1_000_000, Money.format(portfolio));
+
+        LoanBook sample = new LoanBook();
+        for (int i = 0; i < 500_000; i++) sample.add(book.principal[i], book.rateBasisPoints[i], book.tenureMonths[i], 0);
+        long[] sampleEmis = engine.computeEmis(sample);
+        long[] interest = new long[sample.size()], repaid = new long[sample.size()];
+        int[] unclosed = new int[1];
+        t0 = System.nanoTime();
+        engine.forEachSchedule(sample, sampleEmis, (loan, month, in, principalPart, closing) -> {
+            interest[loan] += in;
+            repaid[loan] += principalPart;
+            if (month == sample.tenureMonths[loan] && closing != 0) {
+                synchronized (unclosed) {
+                    unclosed[0]++;
+                }
+            }
+        });
+        long scheduleNs = System.nanoTime() - t0;
+        long rows = 0;
+        int mismatched = unclosed[0];
+        for (int i = 0; i < sample.size(); i++) {
+            rows += sample.tenureMonths[i];
+            if (repaid[i] != sample.principal[i]) mismatched++;
+        }
+        System.out.printf("schedules: %,d instalments in %,d ms (%.1f ns each) | schedules not closing at zero: %d%n",
+                rows, scheduleNs / 1_000_000, scheduleNs / (double) rows, mismatched);
+        if (mismatched > 0 || maxDiff > 1) System.exit(1);
+    }
+}
+
+// ===================== Journal benchmark =====================
+// Run with: java JournalBenchmark
+// 4 threads post 6M deposits across 10k accounts and wait for them to be durable, then the
+// journal is reopened and replayed, with and without a snapshot, and every balance compared.
+// Also: synchronous-durability postings (group commit under load), and a torn record that
+// must end recovery without resurrecting the postings written after it, and accounts that
+// must be reopened by their journaled id rather than by creation order.
+class JournalBenchmark {
+    private static final int THREADS = 4, ACCOUNTS = 10_000, PER_THREAD = 1_500_000;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("journal-bench");
+        int problems = 0;
+        try {
+            long[] expected;
+            try (TransactionJournal journal = new TransactionJournal(dir, 64 << 20, 65_536, 5, Long.MAX_VALUE)) {
+                for (int a = 0; a < ACCOUNTS; a++) journal.append(a, TransactionJournal.OPEN, Money.rupees(1_000));
+                long t0 = System.nanoTime();
+                runThreads(t -> {
+                    Random rnd = new Random(t);
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        journal.append(rnd.nextInt(ACCOUNTS), i % 4 == 3 ? TransactionJournal.WITHDRAW : TransactionJournal.DEPOSIT, 1 + rnd.nextInt(10_000));
+                    }
+                });
+                journal.awaitDurable(journal.lastSeq());
+                long ns = System.nanoTime() - t0;
+                System.out.printf("group commit: %,d postings durable in %,d ms = %,.0f postings/s%n",
+                        THREADS * PER_THREAD, ns / 1_000_000, THREADS * PER_THREAD * 1e9 / ns);
+
+                int syncPerThread = 2_000;
+                t0 = System.nanoTime();
+                runThreads(t -> {
+                    for (int i = 0; i < syncPerThread; i++) {
+                        journal.awaitDurable(journal.append(t, TransactionJournal.DEPOSIT, 1));
+                    }
+                });
+                ns = System.nanoTime() - t0;
+                System.out.printf("append + awaitDurable each: %,.0f postings/s%n", THREADS * syncPerThread * 1e9 / ns);
+                expected = balances(journal);
+            }
+
+            long t0 = System.nanoTime();
+            try (TransactionJournal journal = new TransactionJournal(dir, 64 << 20, 65_536, 5, Long.MAX_VALUE)) {
+                long ns = System.nanoTime() - t0;
+                problems += compare(expected, balances(journal));
+                System.out.printf("replay of %,d postings: %,d ms%n", journal.lastSeq(), ns / 1_000_000);
+                journal.snapshot();
+                for (int i = 0; i < 100_000; i++) journal.append(i % ACCOUNTS, TransactionJournal.DEPOSIT, 5);
+                expected = balances(journal);
+            }
+            t0 = System.nanoTime();
+            try (TransactionJournal journal = new TransactionJournal(dir, 64 << 20, 65_536, 5, Long.MAX_VALUE)) {
+                long ns = System.nanoTime() - t0;
+                problems += compare(expected, balances(journal));
+                System.out.printf("replay after snapshot at %,d: %,d ms%n", journal.snapshotSeq(), ns / 1_000_000);
+            }
+            problems += tornTail(dir.resolve("torn"), false);
+            problems += tornTail(dir.resolve("gap"), true);
+            problems += reopenedAccounts(dir.resolve("accounts"));
+        } finally {
+            try (java.util.stream.Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+        System.out.println("problems: " + problems);
+        if (problems > 0) System.exit(1);
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    private static void runThreads(Worker worker) throws InterruptedException {
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    worker.run(id);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+    }
+
+    private static long[] balances(TransactionJournal journal) {
+        long[] out = new long[ACCOUNTS];
+        for (int a = 0; a < ACCOUNTS; a++) out[a] = journal.balanceOf(a);
+        return out;
+    }
+
+    private static int compare(long[] expected, long[] actual) {
+        int wrong = 0;
+        for (int a = 0; a < expected.length; a++) if (expected[a] != actual[a]) wrong++;
+        if (wrong > 0) System.out.println(wrong + " balances differ after replay");
+        return wrong;
+    }
+
+    // deposits of 1..100 paise as seq 2..101; seq 50 is then torn on disk, or zeroed as if its
+    // page was lost while the pages after it reached disk
+    private static int tornTail(Path dir, boolean lostPage) throws IOException {
+        int problems = 0;
+        try (TransactionJournal journal = new TransactionJournal(dir, 1 << 16, 16, 1, Long.MAX_VALUE)) {
+            journal.append(7, TransactionJournal.OPEN, 0);
+            for (int i = 1; i <= 100; i++) journal.append(7, TransactionJournal.DEPOSIT, i);
+        }
+        try (FileChannel ch = FileChannel.open(dir.resolve("journal-00000001.seg"), StandardOpenOption.WRITE)) {
+            byte[] damage = lostPage ? new byte[TransactionJournal.RECORD_BYTES] : new byte[]{1, 2, 3};
+            ch.write(ByteBuffer.wrap(damage), 49L * TransactionJournal.RECORD_BYTES + (lostPage ? 0 : 20));
+        }
+        try (TransactionJournal journal = new TransactionJournal(dir, 1 << 16, 16, 1, Long.MAX_VALUE)) {
+            if (journal.lastSeq() != 49 || journal.balanceOf(7) != 48 * 49 / 2) problems++;
+            journal.append(7, TransactionJournal.DEPOSIT, 1_000);
+        }
+        try (TransactionJournal journal = new TransactionJournal(dir, 1 << 16, 16, 1, Long.MAX_VALUE)) {
+            if (journal.lastSeq() != 50 || journal.balanceOf(7) != 48 * 49 / 2 + 1_000) problems++;
+        }
+        System.out.println((lostPage ? "lost page" : "torn record") + " recovery: " + (problems == 0 ? "ok" : "FAILED"));
+        return problems;
+    }
+
+    // accounts reopened by id, in a different order, get their own balances back; ids the
+    // journal doesn't hold, or a new account on a journaled id, are refused
+    private static int reopenedAccounts(Path dir) throws IOException {
+        int problems = 0;
+        int aliceId, bobId;
+        try (TransactionJournal journal = new TransactionJournal(dir, 1 << 16, 16, 1, Long.MAX_VALUE)) {
+            Account alice = new SavingsAccount("Alice", Money.rupees(100));
+            Account bob = new CurrentAccount("Bob", Money.rupees(5));
+            alice.attachJournal(journal);
+            bob.attachJournal(journal);
+            alice.deposit(Money.rupees(900));
+            aliceId = alice.getAccountId();
+            bobId = bob.getAccountId();
+        }
+        try (TransactionJournal journal = new TransactionJournal(dir, 1 << 16, 16, 1, Long.MAX_VALUE)) {
+            Account bob = new CurrentAccount(bobId, "Bob");
+            Account alice = new SavingsAccount(aliceId, "Alice");
+            bob.attachJournal(journal);
+            alice.attachJournal(journal);
+            if (alice.getBalance() != Money.rupees(1_000) || bob.getBalance() != Money.rupees(5)) problems++;
+
+            Account fresh = new SavingsAccount("Carol", 0);
+            fresh.attachJournal(journal);
+            if (fresh.getAccountId() == aliceId || fresh.getAccountId() == bobId) problems++;
+            try {
+                new SavingsAccount(fresh.getAccountId() + 1, "Nobody").attachJournal(journal);
+                problems++;
+            } catch (IllegalStateException expected) {
+                // never journaled
+            }
+            try {
+                Account impostor = new SavingsAccount("Mallory", 0);
+                journal.append(impostor.getAccountId(), TransactionJournal.OPEN, Money.rupees(1)); // someone else's
+                impostor.attachJournal(journal);
+                problems++;
+            } catch (IllegalStateException expected) {
+                // the journal already holds that id
+            }
+        }
+        System.out.println("accounts reopened by id: " + (problems == 0 ? "ok" : "FAILED"));
+        return problems;
     }
 }
 
@@ -150,48 +1078,48 @@ public class BankApp {
         System.out.println("🏦 Banking System Simulation Started\n");
 
         // ---------------- Person 1: Srimani ----------------
-        Account srimaniAccount = new SavingsAccount("Srimani", 50000);
+        Account srimaniAccount = new SavingsAccount("Srimani", Money.rupees(50_000));
         srimaniAccount.displayAccountType();
-        srimaniAccount.deposit(20000);
-        srimaniAccount.withdraw(15000);
+        srimaniAccount.deposit(Money.rupees(20_000));
+        srimaniAccount.withdraw(Money.rupees(15_000));
 
         // Srimani applies for a Personal Loan
-        Loan srimaniLoan = new PersonalLoan(srimaniAccount, 100000, 12); // 1-year loan
+        Loan srimaniLoan = new PersonalLoan(srimaniAccount, Money.rupees(100_000), 12); // 1-year loan
         srimaniLoan.printLoanDetails();
-        double srimaniEMI = srimaniLoan.calculateEMI();
-        System.out.println("\nCalculated EMI for Srimani: ₹" + Math.round(srimaniEMI));
-        srimaniLoan.payEMI(Math.round(srimaniEMI));
-        System.out.println("\nAccount Balance: ₹" + srimaniAccount.getBalance());
+        long srimaniEMI = srimaniLoan.calculateEMI();
+        System.out.println("\nCalculated EMI for Srimani: ₹" + Money.format(srimaniEMI));
+        srimaniLoan.payEMI(srimaniEMI);
+        System.out.println("\nAccount Balance: ₹" + Money.format(srimaniAccount.getBalance()));
         srimaniLoan.printLoanDetails();
 
         // ---------------- Person 2: Ananya ----------------
-        Account ananyaAccount = new CurrentAccount("Ananya", 75000);
+        Account ananyaAccount = new CurrentAccount("Ananya", Money.rupees(75_000));
         ananyaAccount.displayAccountType();
-        ananyaAccount.deposit(10000);
-        ananyaAccount.withdraw(20000);
+        ananyaAccount.deposit(Money.rupees(10_000));
+        ananyaAccount.withdraw(Money.rupees(20_000));
 
         // Ananya applies for a Home Loan
-        Loan ananyaLoan = new HomeLoan(ananyaAccount, 500000, 60); // 5-year loan
+        Loan ananyaLoan = new HomeLoan(ananyaAccount, Money.rupees(500_000), 60); // 5-year loan
         ananyaLoan.printLoanDetails();
-        double ananyaEMI = ananyaLoan.calculateEMI();
-        System.out.println("\nCalculated EMI for Ananya: ₹" + Math.round(ananyaEMI));
-        ananyaLoan.payEMI(Math.round(ananyaEMI));
-        System.out.println("\nAccount Balance: ₹" + ananyaAccount.getBalance());
+        long ananyaEMI = ananyaLoan.calculateEMI();
+        System.out.println("\nCalculated EMI for Ananya: ₹" + Money.format(ananyaEMI));
+        ananyaLoan.payEMI(ananyaEMI);
+        System.out.println("\nAccount Balance: ₹" + Money.format(ananyaAccount.getBalance()));
         ananyaLoan.printLoanDetails();
 
         // ---------------- Person 3: Rohan ----------------
-        Account rohanAccount = new SavingsAccount("Rohan", 40000);
+        Account rohanAccount = new SavingsAccount("Rohan", Money.rupees(40_000));
         rohanAccount.displayAccountType();
-        rohanAccount.deposit(15000);
-        rohanAccount.withdraw(10000);
+        rohanAccount.deposit(Money.rupees(15_000));
+        rohanAccount.withdraw(Money.rupees(10_000));
 
         // Rohan applies for a Vehicle Loan
-        Loan rohanLoan = new VehicleLoan(rohanAccount, 200000, 36); // 3-year loan
+        Loan rohanLoan = new VehicleLoan(rohanAccount, Money.rupees(200_000), 36); // 3-year loan
         rohanLoan.printLoanDetails();
-        double rohanEMI = rohanLoan.calculateEMI();
-        System.out.println("\nCalculated EMI for Rohan: ₹" + Math.round(rohanEMI));
-        rohanLoan.payEMI(Math.round(rohanEMI));
-        System.out.println("\nAccount Balance: ₹" + rohanAccount.getBalance());
+        long rohanEMI = rohanLoan.calculateEMI();
+        System.out.println("\nCalculated EMI for Rohan: ₹" + Money.format(rohanEMI));
+        rohanLoan.payEMI(rohanEMI);
+        System.out.println("\nAccount Balance: ₹" + Money.format(rohanAccount.getBalance()));
         rohanLoan.printLoanDetails();
 
         // ---------------- Summary ----------------
@@ -1,66 +1,239 @@
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
 // ====================== Core System Classes ======================
 
-class Hotel {
+// Booking and checkout are safe to call from many threads at once:
+//  - a walk-in picks its room on the calendar and then claims the room's vacancy with one CAS,
+//    so each vacant room is handed to one walk-in only
+//  - every stay is claimed on the room's calendar under that room's stripe lock, so two stays
+//    that overlap on the same room can't both be recorded
+//  - activeBookings is a striped primitive map, and checkout acts only if its remove() wins
+//  - staff notifications are only enqueued here; NotificationDispatcher delivers them
+class Hotel implements AutoCloseable {
     private String name;
-    private List<Room> rooms = new ArrayList<>();
-    private Map<String, Booking> activeBookings = new HashMap<>();
+    private List<Room> rooms = new ArrayList<>(); // guarded by 'this'; setup and reports only
+    private LongBookingMap activeBookings = new LongBookingMap(); // by booking id
+    private final BookingIdGenerator bookingIds;
+    private final NotificationDispatcher notifications;
+    // how many rooms of each type are vacant; a walk-in takes one, a checkout puts it back
+    private Map<RoomType, FreeRoomPool> freeRooms = new EnumMap<>(RoomType.class);
+    // night-by-night reservations of each type, for stays booked ahead
+    private Map<RoomType, RoomCalendar> calendars = new EnumMap<>(RoomType.class);
 
-    public Hotel(String name) { this.name = name; }
+    static final int MAX_ADVANCE_DAYS = 365;
 
-    public void addRoom(Room room) {
+    public Hotel(String name) {
+        this(name, 0);
+    }
+
+    // 'node' tells apart booking ids minted by different servers of the same hotel chain
+    public Hotel(String name, int node) {
+        this(name, node, new NotificationDispatcher(StaffNotifier.CONSOLE, 4_096, 100, 64));
+    }
+
+    public Hotel(String name, int node, NotificationDispatcher notifications) {
+        this.name = name;
+        this.bookingIds = new BookingIdGenerator(node);
+        this.notifications = notifications;
+        for (RoomType type : RoomType.values()) {
+            freeRooms.put(type, new FreeRoomPool());
+            calendars.put(type, new RoomCalendar());
+        }
+    }
+
+    public synchronized void addRoom(Room room) {
         rooms.add(room);
+        room.setCalendarIndex(calendars.get(room.getType()).add(room));
+        freeRooms.get(room.getType()).added(room);
+    }
+
+    public int freeRoomCount(RoomType type) {
+        return freeRooms.get(type).size();
     }
 
+    // keeps the original string API ("single", "Suite", ...); unknown types find no room
     public Booking bookRoom(String roomType, Guest guest, int days) {
+        RoomType type = RoomType.fromName(roomType);
+        return type == null ? null : bookRoom(type, guest, days);
+    }
+
+    // walk-in: a room with no reservation during the stay, picked on the calendar like reserve()
+    // does (a bitmap search, however many vacant rooms are promised to later guests), that is
+    // also vacant right now
+    public Booking bookRoom(RoomType type, Guest guest, int days) {
+        LocalDate checkIn = LocalDate.now();
+        LocalDate checkOut = checkIn.plusDays(days);
+        long from = checkIn.toEpochDay(), to = checkOut.toEpochDay();
+        validateStay(from, to); // same 1..MAX_ADVANCE_DAYS window as reserve, or the calendar ring wraps
+        RoomCalendar calendar = calendars.get(type);
+        FreeRoomPool free = freeRooms.get(type);
+
+        int start = 0;
+        while (true) {
+            int index = calendar.firstFree(from, to, start);
+            if (index < 0) return null;
+            if (!calendar.tryReserve(index, from, to)) continue; // taken meanwhile; look again
+            Room room = calendar.room(index);
+            if (free.take(room)) return record(guest, room, checkIn, checkOut, true);
+            // the nights are free but a guest is still in the room past their check-out date
+            calendar.release(index, from, to);
+            start = index + 1;
+        }
+    }
+
+    // advance reservation for the nights [checkIn, checkOut); the room stays vacant until then
+    public Booking reserve(RoomType type, Guest guest, LocalDate checkIn, LocalDate checkOut) {
+        long from = checkIn.toEpochDay(), to = checkOut.toEpochDay();
+        validateStay(from, to);
+        RoomCalendar calendar = calendars.get(type);
+        while (true) {
+            int index = calendar.firstFree(from, to);
+            if (index < 0) return null;
+            if (calendar.tryReserve(index, from, to)) return record(guest, calendar.room(index), checkIn, checkOut, false);
+            // another booker took that room for an overlapping night; look again
+        }
+    }
+
+    // bulk availability: every room of 'type' free for all nights in [checkIn, checkOut)
+    public List<Room> findAvailableRooms(RoomType type, LocalDate checkIn, LocalDate checkOut) {
+        long from = checkIn.toEpochDay(), to = checkOut.toEpochDay();
+        validateStay(from, to);
+        return calendars.get(type).freeRooms(from, to);
+    }
+
+    public boolean isAvailable(Room room, LocalDate checkIn, LocalDate checkOut) {
+        long from = checkIn.toEpochDay(), to = checkOut.toEpochDay();
+        validateStay(from, to);
+        return calendars.get(room.getType()).isFree(room.getCalendarIndex(), from, to);
+    }
+
+    // the same answer from the booking list alone, kept as the reference for AvailabilityBenchmark
+    synchronized List<Room> findAvailableRoomsByScan(RoomType type, LocalDate checkIn, LocalDate checkOut) {
+        Set<Room> taken = new HashSet<>();
+        activeBookings.forEach(b -> {
+            if (b.getCheckIn().isBefore(checkOut) && checkIn.isBefore(b.getCheckOut())) taken.add(b.getRoom());
+        });
+        List<Room> free = new ArrayList<>();
         for (Room room : rooms) {
-            if (!room.isBooked() && room.getRoomType().equalsIgnoreCase(roomType)) {
-                String bookingId = UUID.randomUUID().toString();
-                Booking booking = new Booking(bookingId, guest, room, days);
-                room.setBooked(true);
-                activeBookings.put(bookingId, booking);
-                notifyStaff("New Booking → Room " + room.getRoomNumber());
-                return booking;
-            }
+            if (room.getType() == type && !taken.contains(room)) free.add(room);
+        }
+        return free;
+    }
+
+    private Booking record(Guest guest, Room room, LocalDate checkIn, LocalDate checkOut, boolean inHouse) {
+        long bookingId = bookingIds.nextId();
+        Booking booking = new Booking(bookingId, guest, room, checkIn, checkOut);
+        booking.setInHouse(inHouse); // before publishing, so checkout always sees it
+        activeBookings.put(bookingId, booking);
+        notifications.publish(room.getRoomNumber(), NotificationKind.NEW_BOOKING);
+        return booking;
+    }
+
+    private void validateStay(long from, long to) {
+        long today = LocalDate.now().toEpochDay();
+        if (to <= from) throw new IllegalArgumentException("check-out must be after check-in");
+        if (from < today || to > today + MAX_ADVANCE_DAYS) {
+            throw new IllegalArgumentException("stays must fall within the next " + MAX_ADVANCE_DAYS + " days");
+        }
+    }
+
+    // the original linear search, kept as the reference for RoomIndexBenchmark
+    synchronized Room findFreeRoomByScan(String roomType) {
+        for (Room room : rooms) {
+            if (!room.isBooked() && room.getRoomType().equalsIgnoreCase(roomType)) return room;
         }
         return null;
     }
 
-    public double checkout(String bookingId) {
-        Booking booking = activeBookings.get(bookingId);
-        if (booking == null) return 0;
+    // by the code printed on the booking, e.g. "0M8ZK3V4G2A01"
+    public double checkout(String bookingCode) {
+        return checkout(BookingIdGenerator.parse(bookingCode));
+    }
 
-        booking.getRoom().setBooked(false);
-        activeBookings.remove(bookingId);
+    public Booking findBooking(long bookingId) {
+        return activeBookings.get(bookingId);
+    }
+
+    public double checkout(long bookingId) {
+        Booking booking = activeBookings.remove(bookingId);
+        if (booking == null) return 0; // unknown, or another thread checked it out first
 
-        notifyStaff("Checkout → Room " + booking.getRoom().getRoomNumber());
+        Room room = booking.getRoom();
+        // nights not yet used go back on sale (all of them for a reservation that never arrived)
+        long from = Math.max(booking.getCheckIn().toEpochDay(), LocalDate.now().toEpochDay());
+        calendars.get(room.getType()).release(room.getCalendarIndex(), from, booking.getCheckOut().toEpochDay());
+        if (booking.isInHouse()) freeRooms.get(room.getType()).vacate(room);
+
+        notifications.publish(room.getRoomNumber(), NotificationKind.CHECKOUT);
         return booking.calculateTotalBill();
     }
 
-    private void notifyStaff(String message) {
-        System.out.println("[STAFF NOTIFICATION] " + message);
+    public NotificationDispatcher getNotifications() { return notifications; }
+
+    // delivers pending staff notifications; any raised after this are dropped
+    @Override
+    public void close() {
+        notifications.close();
     }
 }
 
 
 // ====================== Room Classes (Inheritance + Polymorphism) ======================
 
+enum RoomType {
+    SINGLE("Single"), DOUBLE("Double"), SUITE("Suite");
+
+    private final String displayName;
+
+    RoomType(String displayName) { this.displayName = displayName; }
+
+    public String getDisplayName() { return displayName; }
+
+    // case-insensitive lookup by display name; null when there is no such type
+    public static RoomType fromName(String name) {
+        for (RoomType type : values()) {
+            if (type.displayName.equalsIgnoreCase(name)) return type;
+        }
+        return null;
+    }
+}
+
 abstract class Room {
     protected int roomNumber;
     protected double pricePerDay;
-    protected boolean isBooked = false;
+    private final AtomicBoolean booked = new AtomicBoolean(); // occupied right now
+    private int calendarIndex;           // this room's bit in its type's RoomCalendar
 
     public Room(int roomNumber, double pricePerDay) {
         this.roomNumber = roomNumber;
         this.pricePerDay = pricePerDay;
     }
 
-    public abstract String getRoomType();
+    public abstract RoomType getType();
 
-    public boolean isBooked() { return isBooked; }
-    public void setBooked(boolean status) { isBooked = status; }
+    public String getRoomType() { return getType().getDisplayName(); }
+
+    public boolean isBooked() { return booked.get(); }
+    public void setBooked(boolean status) { booked.set(status); }
+    boolean tryOccupy() { return booked.compareAndSet(false, true); }
+    boolean tryVacate() { return booked.compareAndSet(true, false); }
     public int getRoomNumber() { return roomNumber; }
+    int getCalendarIndex() { return calendarIndex; }
+    void setCalendarIndex(int index) { this.calendarIndex = index; }
     public double getPricePerDay() { return pricePerDay; }
 }
 
@@ -70,7 +243,7 @@ class SingleRoom extends Room {
     }
 
     @Override
-    public String getRoomType() { return "Single"; }
+    public RoomType getType() { return RoomType.SINGLE; }
 }
 
 class DoubleRoom extends Room {
@@ -79,7 +252,7 @@ class DoubleRoom extends Room {
     }
 
     @Override
-    public String getRoomType() { return "Double"; }
+    public RoomType getType() { return RoomType.DOUBLE; }
 }
 
 class SuiteRoom extends Room {
@@ -88,7 +261,609 @@ class SuiteRoom extends Room {
     }
 
     @Override
-    public String getRoomType() { return "Suite"; }
+    public RoomType getType() { return RoomType.SUITE; }
+}
+
+
+// ====================== Staff Notifications (async, coalesced) ======================
+
+enum NotificationKind {
+    NEW_BOOKING("New Booking"),
+    CHECKOUT("Checkout");
+
+    private final String label;
+
+    NotificationKind(String label) { this.label = label; }
+
+    public String getLabel() { return label; }
+}
+
+// one room's events that arrived within a coalescing window, delivered as a single message
+class StaffNotification {
+    private final int roomNumber;
+    private final int[] counts = new int[NotificationKind.values().length];
+    final long firstSeenNanos;
+
+    StaffNotification(int roomNumber, long firstSeenNanos) {
+        this.roomNumber = roomNumber;
+        this.firstSeenNanos = firstSeenNanos;
+    }
+
+    void add(NotificationKind kind) { counts[kind.ordinal()]++; }
+
+    public int getRoomNumber() { return roomNumber; }
+    public int count(NotificationKind kind) { return counts[kind.ordinal()]; }
+
+    // e.g. "Room 101: New Booking, Checkout" or "Room 204: New Booking x3"
+    public String getMessage() {
+        StringBuilder sb = new StringBuilder("Room ").append(roomNumber).append(':');
+        String sep = " ";
+        for (NotificationKind kind : NotificationKind.values()) {
+            int n = counts[kind.ordinal()];
+            if (n == 0) continue;
+            sb.append(sep).append(kind.getLabel());
+            if (n > 1) sb.append(" x").append(n);
+            sep = ", ";
+        }
+        return sb.toString();
+    }
+}
+
+// Where notifications finally go (console, pager, email...). Called from the dispatcher's
+// thread only, so implementations may block on I/O without slowing bookings.
+interface StaffNotifier {
+    void deliver(List<StaffNotification> batch);
+
+    StaffNotifier CONSOLE = batch -> {
+        for (StaffNotification n : batch) System.out.println("[STAFF NOTIFICATION] " + n.getMessage());
+    };
+    StaffNotifier DISCARD = batch -> { }; // benchmarks
+}
+
+// Takes staff events off the booking path. publish() is a non-blocking offer onto a bounded
+// queue; when the queue is full the event is dropped and counted rather than stalling the
+// booking (backpressure shows up as dropped() and pending(), never as latency). A background
+// thread folds events for the same room seen within 'window' into one notification and hands
+// them to the notifier in batches of up to maxBatch.
+class NotificationDispatcher implements AutoCloseable {
+    private static final class Event {
+        final int roomNumber;
+        final NotificationKind kind;
+        final long atNanos = System.nanoTime();
+
+        Event(int roomNumber, NotificationKind kind) {
+            this.roomNumber = roomNumber;
+            this.kind = kind;
+        }
+    }
+
+    private final StaffNotifier notifier;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final BlockingQueue<Event> queue;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder notifierErrors = new LongAdder();
+
+    public NotificationDispatcher(StaffNotifier notifier, int capacity, long windowMillis, int maxBatch) {
+        this.notifier = notifier;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.worker = new Thread(this::dispatchLoop, "staff-notifier");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // false if the event was dropped because the dispatcher is saturated or closed
+    public boolean publish(int roomNumber, NotificationKind kind) {
+        Event event = new Event(roomNumber, kind);
+        if (!running || !queue.offer(event)) {
+            dropped.increment();
+            return false;
+        }
+        // close() may have drained the queue between our check and the offer; whoever takes
+        // the event out first decides: close() delivers it, or we withdraw it as dropped
+        if (!running && queue.remove(event)) {
+            dropped.increment();
+            return false;
+        }
+        published.increment();
+        return true;
+    }
+
+    public long published() { return published.sum(); }
+    public long dropped() { return dropped.sum(); }
+    public long delivered() { return delivered.sum(); } // notifications, after coalescing
+    public long batches() { return batches.sum(); }
+    public long notifierErrors() { return notifierErrors.sum(); }
+    public int pending() { return queue.size(); }
+
+    private void dispatchLoop() {
+        // rooms with events still inside their window, oldest first
+        Map<Integer, StaffNotification> open = new LinkedHashMap<>();
+        List<Event> drained = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty() || !open.isEmpty()) {
+            try {
+                long wait = open.isEmpty()
+                        ? TimeUnit.MILLISECONDS.toNanos(50)
+                        : open.values().iterator().next().firstSeenNanos + windowNanos - System.nanoTime();
+                Event first = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                if (first != null) {
+                    drained.add(first);
+                    queue.drainTo(drained, maxBatch * 4);
+                    fold(open, drained);
+                    drained.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            flushDue(open, !running && queue.isEmpty());
+        }
+    }
+
+    private static void fold(Map<Integer, StaffNotification> open, List<Event> events) {
+        for (Event e : events) {
+            open.computeIfAbsent(e.roomNumber, r -> new StaffNotification(r, e.atNanos)).add(e.kind);
+        }
+    }
+
+    // delivers every room whose window has closed (all of them when closing), maxBatch at a time
+    private void flushDue(Map<Integer, StaffNotification> open, boolean all) {
+        long now = System.nanoTime();
+        List<StaffNotification> batch = new ArrayList<>();
+        Iterator<StaffNotification> it = open.values().iterator();
+        while (it.hasNext()) {
+            StaffNotification n = it.next();
+            if (!all && now - n.firstSeenNanos < windowNanos) break; // the rest are younger
+            batch.add(n);
+            it.remove();
+            if (batch.size() == maxBatch) {
+                deliver(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) deliver(batch);
+    }
+
+    private void deliver(List<StaffNotification> batch) {
+        try {
+            notifier.deliver(batch);
+            delivered.add(batch.size());
+            batches.increment();
+        } catch (RuntimeException e) {
+            notifierErrors.increment(); // a broken notifier must not kill the dispatcher
+        }
+    }
+
+    // stops accepting events, then delivers everything already queued or waiting in a window
+    @Override
+    public void close() {
+        running = false;
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        // events offered while the worker was exiting: publish() already reported them accepted
+        List<Event> late = new ArrayList<>();
+        queue.drainTo(late);
+        if (late.isEmpty()) return;
+        Map<Integer, StaffNotification> open = new LinkedHashMap<>();
+        fold(open, late);
+        flushDue(open, true);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("published: %d | dropped: %d | delivered: %d in %d batches | pending: %d",
+                published(), dropped(), delivered(), batches(), pending());
+    }
+}
+
+
+// ====================== Free Room Pool (lock-free) ======================
+
+// Vacancy of the rooms of one type. Each room's occupied flag is claimed with one CAS, so a
+// vacant room goes to exactly one walk-in, and a striped counter keeps the number vacant.
+// Which room to try is the calendar's job (RoomCalendar.firstFree); nothing is queued here,
+// so no vacant room is ever out of sight while another booker looks at it.
+class FreeRoomPool {
+    private final LongAdder size = new LongAdder();
+
+    void added(Room room) {
+        if (!room.isBooked()) size.increment();
+    }
+
+    // claims 'room' for a guest arriving now; false if someone is already in it
+    boolean take(Room room) {
+        if (!room.tryOccupy()) return false;
+        size.decrement();
+        return true;
+    }
+
+    void vacate(Room room) {
+        if (room.tryVacate()) size.increment();
+    }
+
+    int size() { return size.intValue(); }
+}
+
+
+// ====================== Availability Calendar (day bitmaps) ======================
+
+// Night-by-night occupancy for all rooms of one type, stored day-major: for every night a
+// bitmap with one bit per room. "Is room r free from A to B" tests one bit per night, and
+// "which rooms are free from A to B" ORs the nights' bitmaps together 64 rooms at a time.
+// Nights live in a ring of HORIZON_DAYS slots keyed by epoch day; a slot still holding an
+// older day is treated as empty and recycled on the next write.
+//
+// Safe for concurrent use. Rooms are grouped in fixed blocks that never move once created, so
+// adding rooms never invalidates a write in progress. Bits are set and cleared with CAS on
+// their word. Check-and-reserve for one room runs under one of STRIPES locks picked by room
+// index, so two stays can't both claim the same room, and bookings of different rooms don't wait.
+class RoomCalendar {
+    static final int HORIZON_DAYS = 512; // must exceed how far ahead bookings are taken
+    private static final int BLOCK_WORDS = 16, BLOCK_ROOMS = BLOCK_WORDS * 64;
+    private static final int STRIPES = 256;
+
+    // one block of rooms across the whole ring: bits[slot * BLOCK_WORDS + word]
+    private static final class Block {
+        final AtomicLongArray bits = new AtomicLongArray(HORIZON_DAYS * BLOCK_WORDS);
+        final AtomicLongArray nightOfSlot = new AtomicLongArray(HORIZON_DAYS);
+
+        Block() {
+            for (int s = 0; s < HORIZON_DAYS; s++) nightOfSlot.set(s, Long.MIN_VALUE);
+        }
+    }
+
+    private final Object[] stripes = new Object[STRIPES];
+    private volatile Room[] rooms = new Room[BLOCK_ROOMS]; // by calendar index
+    private volatile Block[] blocks = new Block[0];
+    private volatile int size;
+
+    RoomCalendar() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Object();
+    }
+
+    // registers a room and returns its calendar index
+    synchronized int add(Room room) {
+        int index = size;
+        if (index == rooms.length) rooms = Arrays.copyOf(rooms, rooms.length * 2);
+        if (index / BLOCK_ROOMS == blocks.length) {
+            Block[] grown = Arrays.copyOf(blocks, blocks.length + 1);
+            grown[blocks.length] = new Block();
+            blocks = grown;
+        }
+        rooms[index] = room;
+        size = index + 1; // publishes the room and its block
+        return index;
+    }
+
+    // free for every night in [from, to), as epoch days
+    boolean isFree(int room, long from, long to) {
+        Block block = blocks[room / BLOCK_ROOMS];
+        int word = (room % BLOCK_ROOMS) >>> 6;
+        long bit = 1L << room;
+        for (long d = from; d < to; d++) {
+            int slot = slot(d);
+            if (block.nightOfSlot.get(slot) == d && (block.bits.get(slot * BLOCK_WORDS + word) & bit) != 0) return false;
+        }
+        return true;
+    }
+
+    // reserves [from, to) for 'room' if every night is still free; false if someone got there first
+    boolean tryReserve(int room, long from, long to) {
+        synchronized (stripes[room & (STRIPES - 1)]) {
+            if (!isFree(room, from, to)) return false;
+            Block block = blocks[room / BLOCK_ROOMS];
+            int word = (room % BLOCK_ROOMS) >>> 6;
+            long bit = 1L << room;
+            for (long d = from; d < to; d++) {
+                int i = prepare(block, d) * BLOCK_WORDS + word;
+                long current;
+                do {
+                    current = block.bits.get(i);
+                } while (!block.bits.compareAndSet(i, current, current | bit));
+            }
+            return true;
+        }
+    }
+
+    void release(int room, long from, long to) {
+        synchronized (stripes[room & (STRIPES - 1)]) {
+            Block block = blocks[room / BLOCK_ROOMS];
+            int word = (room % BLOCK_ROOMS) >>> 6;
+            long bit = 1L << room;
+            for (long d = from; d < to; d++) {
+                int slot = slot(d);
+                if (block.nightOfSlot.get(slot) != d) continue;
+                int i = slot * BLOCK_WORDS + word;
+                long current;
+                do {
+                    current = block.bits.get(i);
+                } while (!block.bits.compareAndSet(i, current, current & ~bit));
+            }
+        }
+    }
+
+    // every room free for all of [from, to); a lock-free snapshot
+    List<Room> freeRooms(long from, long to) {
+        List<Room> free = new ArrayList<>();
+        int n = size;
+        Room[] byIndex = rooms;
+        Block[] all = blocks;
+        long[] busy = new long[BLOCK_WORDS];
+        for (int b = 0; b * BLOCK_ROOMS < n; b++) {
+            busyMask(all[b], from, to, busy);
+            for (int w = 0; w < BLOCK_WORDS; w++) {
+                long open = ~busy[w];
+                while (open != 0) {
+                    int index = b * BLOCK_ROOMS + (w << 6) + Long.numberOfTrailingZeros(open);
+                    if (index >= n) return free;
+                    free.add(byIndex[index]);
+                    open &= open - 1;
+                }
+            }
+        }
+        return free;
+    }
+
+    // lowest-index room that looks free for all of [from, to), or -1; confirm with tryReserve
+    int firstFree(long from, long to) {
+        return firstFree(from, to, 0);
+    }
+
+    // the same, among rooms with index >= 'start'
+    int firstFree(long from, long to, int start) {
+        int n = size;
+        Block[] all = blocks;
+        long[] busy = new long[BLOCK_WORDS];
+        for (int b = start / BLOCK_ROOMS; b * BLOCK_ROOMS < n; b++) {
+            busyMask(all[b], from, to, busy);
+            for (int w = 0; w < BLOCK_WORDS; w++) {
+                int first = b * BLOCK_ROOMS + (w << 6);
+                long open = ~busy[w];
+                if (first + 64 <= start) continue;
+                if (first < start) open &= -1L << (start - first); // rooms below 'start'
+                if (open != 0) {
+                    int index = first + Long.numberOfTrailingZeros(open);
+                    return index < n ? index : -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    Room room(int index) { return rooms[index]; }
+
+    private static void busyMask(Block block, long from, long to, long[] busy) {
+        Arrays.fill(busy, 0L);
+        for (long d = from; d < to; d++) {
+            int slot = slot(d);
+            if (block.nightOfSlot.get(slot) != d) continue;
+            for (int w = 0; w < BLOCK_WORDS; w++) busy[w] |= block.bits.get(slot * BLOCK_WORDS + w);
+        }
+    }
+
+    // makes the slot for 'day' hold that day, clearing what an older day left behind
+    private static int prepare(Block block, long day) {
+        int slot = slot(day);
+        if (block.nightOfSlot.get(slot) != day) {
+            synchronized (block) {
+                if (block.nightOfSlot.get(slot) != day) {
+                    for (int w = 0; w < BLOCK_WORDS; w++) block.bits.set(slot * BLOCK_WORDS + w, 0L);
+                    block.nightOfSlot.set(slot, day);
+                }
+            }
+        }
+        return slot;
+    }
+
+    private static int slot(long day) {
+        return (int) Math.floorMod(day, (long) HORIZON_DAYS);
+    }
+}
+
+
+// ====================== Booking Ids (time-ordered 64-bit) ======================
+
+// Snowflake-style ids: 41 bits of milliseconds since EPOCH, 10 bits of node (one per hotel
+// server), 12 bits of sequence within the millisecond. Ids sort by creation time, need no
+// SecureRandom, and are never 0, which LongBookingMap uses as its empty marker.
+class BookingIdGenerator {
+    static final long EPOCH = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10, SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final String DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ"; // Crockford base32
+
+    private final long node;
+    // last issued (millis << SEQUENCE_BITS | sequence), advanced by CAS
+    private final AtomicLong last = new AtomicLong();
+
+    BookingIdGenerator(int node) {
+        if (node < 0 || node >= 1 << NODE_BITS) throw new IllegalArgumentException("node must be in [0, 1024)");
+        this.node = node;
+    }
+
+    long nextId() {
+        while (true) {
+            long prev = last.get();
+            long now = System.currentTimeMillis() - EPOCH;
+            long prevMillis = prev >>> SEQUENCE_BITS;
+            long next;
+            if (now > prevMillis) next = now << SEQUENCE_BITS;
+            else if ((prev & SEQUENCE_MASK) < SEQUENCE_MASK) next = prev + 1; // same ms, or clock stepped back
+            else {
+                Thread.onSpinWait(); // 4096 ids this millisecond already; wait for the next one
+                continue;
+            }
+            if (last.compareAndSet(prev, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    static long createdAtMillis(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    // 13 base32 characters, e.g. "0M8ZK3V4G2A01"; case-insensitive and free of I, L, O, U
+    static String format(long id) {
+        char[] out = new char[13];
+        for (int i = 12; i >= 0; i--) {
+            out[i] = DIGITS.charAt((int) (id & 31));
+            id >>>= 5;
+        }
+        return new String(out);
+    }
+
+    static long parse(String code) {
+        if (code.length() != 13) throw new IllegalArgumentException("booking codes are 13 characters: " + code);
+        long id = 0;
+        for (int i = 0; i < 13; i++) {
+            int digit = DIGITS.indexOf(Character.toUpperCase(code.charAt(i)));
+            if (digit < 0 || (i == 0 && digit > 15)) throw new IllegalArgumentException("not a booking code: " + code);
+            id = (id << 5) | digit;
+        }
+        return id;
+    }
+}
+
+// Active bookings keyed by primitive id: open addressing (linear probing) over parallel
+// long[]/Booking[] arrays, split into SEGMENTS each guarded by its own monitor. No boxed
+// keys or entry objects, and threads touching different segments don't wait on each other.
+// Key 0 marks an empty slot, so it is never stored and never found.
+class LongBookingMap {
+    private static final int SEGMENTS = 64;
+
+    private static final class Segment {
+        long[] keys = new long[16];
+        Booking[] values = new Booking[16];
+        int size;
+    }
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    LongBookingMap() {
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment();
+    }
+
+    // murmur3 finalizer; low bits pick the slot, high bits pick the segment
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 58)]; // top 6 bits
+    }
+
+    void put(long key, Booking value) {
+        if (key == 0) throw new IllegalArgumentException("booking id 0 is reserved");
+        long hash = mix(key);
+        Segment s = segmentFor(hash);
+        synchronized (s) {
+            if (s.size * 4 >= s.keys.length * 3) resize(s);
+            int mask = s.keys.length - 1;
+            int i = (int) hash & mask;
+            while (s.keys[i] != 0 && s.keys[i] != key) i = (i + 1) & mask;
+            if (s.keys[i] == 0) s.size++;
+            s.keys[i] = key;
+            s.values[i] = value;
+        }
+    }
+
+    Booking get(long key) {
+        if (key == 0) return null;
+        long hash = mix(key);
+        Segment s = segmentFor(hash);
+        synchronized (s) {
+            int mask = s.keys.length - 1;
+            for (int i = (int) hash & mask; s.keys[i] != 0; i = (i + 1) & mask) {
+                if (s.keys[i] == key) return s.values[i];
+            }
+            return null;
+        }
+    }
+
+    Booking remove(long key) {
+        if (key == 0) return null; // would match an empty slot and drive size negative
+        long hash = mix(key);
+        Segment s = segmentFor(hash);
+        synchronized (s) {
+            int mask = s.keys.length - 1;
+            int i = (int) hash & mask;
+            while (s.keys[i] != key) {
+                if (s.keys[i] == 0) return null;
+                i = (i + 1) & mask;
+            }
+            Booking removed = s.values[i];
+            // backward-shift deletion: pull later entries of the probe run into the hole
+            int hole = i;
+            for (int j = (i + 1) & mask; s.keys[j] != 0; j = (j + 1) & mask) {
+                int home = (int) mix(s.keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    s.keys[hole] = s.keys[j];
+                    s.values[hole] = s.values[j];
+                    hole = j;
+                }
+            }
+            s.keys[hole] = 0;
+            s.values[hole] = null;
+            s.size--;
+            return removed;
+        }
+    }
+
+    int size() {
+        int total = 0;
+        for (Segment s : segments) {
+            synchronized (s) {
+                total += s.size;
+            }
+        }
+        return total;
+    }
+
+    // visits every booking; each segment is seen consistently, the whole map is not
+    void forEach(Consumer<Booking> action) {
+        for (Segment s : segments) {
+            Booking[] snapshot;
+            synchronized (s) {
+                snapshot = s.values.clone();
+            }
+            for (Booking b : snapshot) {
+                if (b != null) action.accept(b);
+            }
+        }
+    }
+
+    private static void resize(Segment s) {
+        long[] oldKeys = s.keys;
+        Booking[] oldValues = s.values;
+        s.keys = new long[oldKeys.length * 2];
+        s.values = new Booking[oldKeys.length * 2];
+        int mask = s.keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == 0) continue;
+            int i = (int) mix(oldKeys[j]) & mask;
+            while (s.keys[i] != 0) i = (i + 1) & mask;
+            s.keys[i] = oldKeys[j];
+            s.values[i] = oldValues[j];
+        }
+    }
 }
 
 
@@ -116,35 +891,486 @@ class Guest {
 // ====================== Booking Class (Composition) ======================
 
 class Booking {
-    private String bookingId;
+    private long bookingId;
     private Guest guest;
     private Room room;
+    private LocalDate checkIn;
+    private LocalDate checkOut; // morning of departure; the last night is the day before
     private int numberOfDays;
+    private boolean inHouse; // a walk-in occupying the room now, rather than a stay booked ahead
 
-    public Booking(String bookingId, Guest guest, Room room, int numberOfDays) {
+    public Booking(long bookingId, Guest guest, Room room, LocalDate checkIn, LocalDate checkOut) {
         this.bookingId = bookingId;
         this.guest = guest;
         this.room = room;
-        this.numberOfDays = numberOfDays;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+        this.numberOfDays = (int) ChronoUnit.DAYS.between(checkIn, checkOut);
     }
 
-    public String getBookingId() { return bookingId; }
+    public long getBookingId() { return bookingId; }
+    public String getBookingCode() { return BookingIdGenerator.format(bookingId); }
     public Room getRoom() { return room; }
+    public LocalDate getCheckIn() { return checkIn; }
+    public LocalDate getCheckOut() { return checkOut; }
+    public boolean isInHouse() { return inHouse; }
+    void setInHouse(boolean inHouse) { this.inHouse = inHouse; }
 
     public double calculateTotalBill() {
         return room.getPricePerDay() * numberOfDays;
     }
 
     public void printBookingDetails() {
-        System.out.println("Booking ID: " + bookingId);
+        System.out.println("Booking ID: " + getBookingCode());
         guest.printGuestInfo();
         System.out.println("Room Type: " + room.getRoomType());
         System.out.println("Room Number: " + room.getRoomNumber());
-        System.out.println("Days: " + numberOfDays);
+        System.out.println("Stay: " + checkIn + " → " + checkOut + " (" + numberOfDays + " days)");
         System.out.println("Price Per Day: ₹" + room.getPricePerDay());
     }
 }
 
+// ====================== Benchmark: free-room index vs scan ======================
+// Run with: java RoomIndexBenchmark
+// Fills a 120k-room property to 95% occupancy and times finding a free room of a
+// given type through the per-type index against the original linear scan. Then 100k
+// vacant suites, all but one reserved from tomorrow: a 2-night walk-in must find that one.
+class RoomIndexBenchmark {
+    public static void main(String[] args) {
+        Hotel hotel = new Hotel("Benchmark Towers", 0, new NotificationDispatcher(StaffNotifier.DISCARD, 4_096, 100, 64));
+        int rooms = 120_000;
+        for (int i = 0; i < rooms; i++) {
+            if (i % 3 == 0) hotel.addRoom(new SingleRoom(i, 2000));
+            else if (i % 3 == 1) hotel.addRoom(new DoubleRoom(i, 3500));
+            else hotel.addRoom(new SuiteRoom(i, 8000));
+        }
+
+        Guest guest = new Guest("Load", "load@example.com");
+        int booked = (int) (rooms * 0.95);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < booked; i++) hotel.bookRoom(RoomType.values()[i % 3], guest, 1);
+        long indexNs = System.nanoTime() - t0;
+
+        int queries = 200;
+        String[] names = {"single", "Double", "SUITE"};
+        t0 = System.nanoTime();
+        for (int i = 0; i < queries; i++) hotel.findFreeRoomByScan(names[i % 3]);
+        long scanNs = System.nanoTime() - t0;
+
+        System.out.printf("rooms=%,d at 95%% full | index: %,d ns per booking | scan: %,d ns per lookup%n",
+                rooms, indexNs / booked, scanNs / queries);
+        System.out.println("free now: single=" + hotel.freeRoomCount(RoomType.SINGLE) + " double="
+                + hotel.freeRoomCount(RoomType.DOUBLE) + " suite=" + hotel.freeRoomCount(RoomType.SUITE));
+        hotel.close();
+
+        if (!walkInsPastAdvanceReservations()) System.exit(1);
+    }
+
+    // every suite is vacant tonight but promised from tomorrow, except the last one added
+    private static boolean walkInsPastAdvanceReservations() {
+        Hotel hotel = new Hotel("Benchmark Towers", 0, new NotificationDispatcher(StaffNotifier.DISCARD, 4_096, 100, 64));
+        int suites = 100_000;
+        for (int i = 0; i < suites; i++) hotel.addRoom(new SuiteRoom(i, 8000));
+        Guest guest = new Guest("Load", "load@example.com");
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        for (int i = 0; i < suites - 1; i++) hotel.reserve(RoomType.SUITE, guest, tomorrow, tomorrow.plusDays(3));
+
+        int walkIns = 2_000, found = 0;
+        long t0 = System.nanoTime();
+        for (int i = 0; i < walkIns; i++) {
+            Booking b = hotel.bookRoom(RoomType.SUITE, guest, 2);
+            if (b != null && b.getRoom().getRoomNumber() == suites - 1) found++;
+            if (b != null) hotel.checkout(b.getBookingId());
+        }
+        long ns = (System.nanoTime() - t0) / walkIns;
+        System.out.printf("%,d vacant suites, %,d reserved from tomorrow | 2-night walk-in + checkout: %,d ns | found the free one: %d/%d%n",
+                suites, suites - 1, ns, found, walkIns);
+        hotel.close();
+        return found == walkIns;
+    }
+}
+
+// ====================== Benchmark: availability search ======================
+// Run with: java AvailabilityBenchmark
+// 90k rooms with ~60% of the next 90 nights reserved in random 1-7 night stays. Times the
+// bulk "free rooms of a type for these nights" query on the calendars against deriving the
+// same answer from the booking list, and checks both agree.
+class AvailabilityBenchmark {
+    public static void main(String[] args) {
+        Hotel hotel = new Hotel("Benchmark Towers", 0, new NotificationDispatcher(StaffNotifier.DISCARD, 4_096, 100, 64));
+        int rooms = 90_000;
+        for (int i = 0; i < rooms; i++) {
+            if (i % 3 == 0) hotel.addRoom(new SingleRoom(i, 2000));
+            else if (i % 3 == 1) hotel.addRoom(new DoubleRoom(i, 3500));
+            else hotel.addRoom(new SuiteRoom(i, 8000));
+        }
+
+        Random rnd = new Random(5);
+        Guest guest = new Guest("Load", "load@example.com");
+        LocalDate today = LocalDate.now();
+        int reservations = 0;
+        for (int i = 0; i < rooms * 90 * 6 / 10 / 4; i++) { // 4 nights on average
+            LocalDate in = today.plusDays(rnd.nextInt(90));
+            if (hotel.reserve(RoomType.values()[i % 3], guest, in, in.plusDays(1 + rnd.nextInt(7))) != null) reservations++;
+        }
+
+        int queries = 2_000, scans = 20;
+        LocalDate[] from = new LocalDate[queries];
+        for (int i = 0; i < queries; i++) from[i] = today.plusDays(rnd.nextInt(85));
+        long found = 0;
+        for (int i = 0; i < queries; i++) found += hotel.findAvailableRooms(RoomType.DOUBLE, from[i], from[i].plusDays(3)).size(); // warm-up
+        long t0 = System.nanoTime();
+        for (int i = 0; i < queries; i++) found += hotel.findAvailableRooms(RoomType.DOUBLE, from[i], from[i].plusDays(3)).size();
+        long calendarNs = (System.nanoTime() - t0) / queries;
+
+        int mismatches = 0;
+        t0 = System.nanoTime();
+        for (int i = 0; i < scans; i++) {
+            List<Room> scanned = hotel.findAvailableRoomsByScan(RoomType.DOUBLE, from[i], from[i].plusDays(3));
+            if (!new HashSet<>(scanned).equals(new HashSet<>(hotel.findAvailableRooms(RoomType.DOUBLE, from[i], from[i].plusDays(3))))) {
+                mismatches++;
+            }
+        }
+        long scanNs = (System.nanoTime() - t0) / scans;
+
+        System.out.printf("rooms=%,d | reservations=%,d | 3-night search: calendar %,d ns vs booking scan %,d ns | mismatches: %d%n",
+                rooms, reservations, calendarNs, scanNs, mismatches);
+        if (mismatches > 0) System.exit(1);
+    }
+}
+
+// ====================== Benchmark: concurrent bookings ======================
+// Run with: java BookingContentionBenchmark
+// 1 to 64 threads book walk-ins and advance stays and check them out again, first through the
+// concurrent engine and then with every call behind one global lock, as the old engine needed.
+// A final pass lets 64 threads fight over 30 rooms and checks no room/night was sold twice.
+class BookingContentionBenchmark {
+    private static final int[] THREADS = {1, 4, 16, 64};
+    private static final long RUN_MILLIS = 500;
+
+    public static void main(String[] args) throws InterruptedException {
+        run(4, false); // warm-up
+        run(4, true);
+        for (int threads : THREADS) {
+            long striped = run(threads, false), global = run(threads, true);
+            System.out.printf("threads=%2d | striped: %,10d ops/s | global lock: %,10d ops/s%n", threads, striped, global);
+        }
+        int oversold = oversoldNights();
+        System.out.println("oversold room-nights under contention: " + oversold);
+        boolean rejected = rejectsBadWalkIns();
+        System.out.println("walk-ins of 0 or " + (Hotel.MAX_ADVANCE_DAYS + 1) + " nights rejected: " + rejected);
+        if (oversold > 0 || !rejected) System.exit(1);
+    }
+
+    private static boolean rejectsBadWalkIns() {
+        Hotel hotel = hotel(1);
+        Guest guest = new Guest("Load", "load@example.com");
+        int rejected = 0;
+        for (int days : new int[] {0, -1, Hotel.MAX_ADVANCE_DAYS + 1}) {
+            try {
+                hotel.bookRoom(RoomType.SUITE, guest, days);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+        }
+        boolean ok = rejected == 3 && hotel.freeRoomCount(RoomType.SUITE) == 1;
+        hotel.close();
+        return ok;
+    }
+
+    private static Hotel hotel(int roomsPerType) {
+        Hotel hotel = new Hotel("Benchmark Towers", 0, new NotificationDispatcher(StaffNotifier.DISCARD, 4_096, 100, 64));
+        for (int i = 0; i < roomsPerType * 3; i++) {
+            if (i % 3 == 0) hotel.addRoom(new SingleRoom(i, 2000));
+            else if (i % 3 == 1) hotel.addRoom(new DoubleRoom(i, 3500));
+            else hotel.addRoom(new SuiteRoom(i, 8000));
+        }
+        return hotel;
+    }
+
+    // operations per second with 'threads' workers each keeping up to 8 bookings open
+    private static long run(int threads, boolean globalLock) throws InterruptedException {
+        Hotel hotel = hotel(1_000);
+        Object lock = new Object();
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                Guest guest = new Guest("Load", "load@example.com");
+                long[] open = new long[8];
+                LocalDate today = LocalDate.now();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long n = 0; System.nanoTime() < deadline[0]; n++) {
+                    int i = (int) (n & 7);
+                    RoomType type = RoomType.values()[rnd.nextInt(3)];
+                    LocalDate in = today.plusDays(1 + rnd.nextInt(60));
+                    boolean walkIn = rnd.nextBoolean();
+                    if (globalLock) {
+                        synchronized (lock) {
+                            step(hotel, open, i, type, guest, walkIn, in);
+                        }
+                    } else {
+                        step(hotel, open, i, type, guest, walkIn, in);
+                    }
+                    ops.add(2);
+                }
+            });
+            workers[t].start();
+        }
+        deadline[0] = System.nanoTime() + RUN_MILLIS * 1_000_000;
+        start.countDown();
+        for (Thread w : workers) w.join();
+        hotel.close();
+        return ops.sum() * 1000 / RUN_MILLIS;
+    }
+
+    private static void step(Hotel hotel, long[] open, int i, RoomType type, Guest guest, boolean walkIn, LocalDate in) {
+        if (open[i] != 0) hotel.checkout(open[i]);
+        Booking b = walkIn ? hotel.bookRoom(type, guest, 1 + (i % 3)) : hotel.reserve(type, guest, in, in.plusDays(1 + (i % 4)));
+        open[i] = b == null ? 0 : b.getBookingId();
+    }
+
+    // 64 threads reserve (never check out) 30 suites over the next 30 nights, then every
+    // room's stays are compared pairwise
+    private static int oversoldNights() throws InterruptedException {
+        Hotel hotel = hotel(30);
+        List<Booking> all = Collections.synchronizedList(new ArrayList<>());
+        Thread[] workers = new Thread[64];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                Guest guest = new Guest("Load", "load@example.com");
+                LocalDate today = LocalDate.now();
+                for (int i = 0; i < 200; i++) {
+                    LocalDate in = today.plusDays(rnd.nextInt(27));
+                    Booking b = rnd.nextInt(4) == 0
+                            ? hotel.bookRoom(RoomType.SUITE, guest, 1 + rnd.nextInt(3))
+                            : hotel.reserve(RoomType.SUITE, guest, in, in.plusDays(1 + rnd.nextInt(3)));
+                    if (b != null) all.add(b);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) w.join();
+        hotel.close();
+
+        Map<Room, boolean[]> nights = new HashMap<>();
+        LocalDate today = LocalDate.now();
+        int oversold = 0;
+        for (Booking b : all) {
+            boolean[] sold = nights.computeIfAbsent(b.getRoom(), r -> new boolean[64]);
+            for (LocalDate d = b.getCheckIn(); d.isBefore(b.getCheckOut()); d = d.plusDays(1)) {
+                int night = (int) ChronoUnit.DAYS.between(today, d);
+                if (sold[night]) oversold++;
+                sold[night] = true;
+            }
+        }
+        return oversold;
+    }
+}
+
+// ====================== Benchmark: booking ids ======================
+// Run with: java BookingIdBenchmark
+// Checks that ids are unique across threads, ordered per thread and survive format/parse,
+// then compares minting + put/get/remove of UUID strings in a ConcurrentHashMap against
+// 64-bit ids in LongBookingMap, and the heap each needs to hold 1M active bookings.
+class BookingIdBenchmark {
+    private static final int THREADS = 8, PER_THREAD = 200_000, HELD = 1_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        BookingIdGenerator generator = new BookingIdGenerator(7);
+        long[][] minted = new long[THREADS][PER_THREAD];
+        Thread[] workers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            long[] mine = minted[t];
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < mine.length; i++) mine[i] = generator.nextId();
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) w.join();
+        int problems = 0;
+        long[] all = new long[THREADS * PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < PER_THREAD; i++) {
+                long id = minted[t][i];
+                if (i > 0 && id <= minted[t][i - 1]) problems++;
+                if (BookingIdGenerator.parse(BookingIdGenerator.format(id).toLowerCase()) != id) problems++;
+                all[t * PER_THREAD + i] = id;
+            }
+        }
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) if (all[i] == all[i - 1]) problems++;
+        problems += zeroKeyProblems();
+        System.out.printf("%,d ids from %d threads, e.g. %s (created %s) | problems: %d%n", all.length, THREADS,
+                BookingIdGenerator.format(all[0]), java.time.Instant.ofEpochMilli(BookingIdGenerator.createdAtMillis(all[0])), problems);
+
+        Booking sample = new Booking(1, new Guest("Load", "load@example.com"), new SingleRoom(1, 2000),
+                LocalDate.now(), LocalDate.now().plusDays(1));
+        for (int round = 0; round < 2; round++) { // first round is warm-up
+            long uuidNs = churn(sample, false), longNs = churn(sample, true);
+            if (round == 1) System.out.printf("mint+put+get+remove: UUID/ConcurrentHashMap %,d ns vs long/LongBookingMap %,d ns%n", uuidNs, longNs);
+        }
+
+        long before = usedHeap();
+        Map<String, Booking> byUuid = new ConcurrentHashMap<>();
+        for (int i = 0; i < HELD; i++) byUuid.put(UUID.randomUUID().toString(), sample);
+        long uuidBytes = usedHeap() - before;
+        before = usedHeap();
+        LongBookingMap byId = new LongBookingMap();
+        for (int i = 0; i < HELD; i++) byId.put(generator.nextId(), sample);
+        long longBytes = usedHeap() - before;
+        System.out.printf("%,d active bookings: UUID keys %,d B/booking vs long keys %,d B/booking (%d/%d held)%n",
+                HELD, uuidBytes / HELD, longBytes / HELD, byUuid.size() / HELD, byId.size() / HELD);
+        if (problems > 0) System.exit(1);
+    }
+
+    // id 0 is the empty-slot marker: looking it up or removing it must leave the map intact
+    private static int zeroKeyProblems() {
+        LongBookingMap map = new LongBookingMap();
+        Booking sample = new Booking(1, new Guest("Load", "load@example.com"), new SingleRoom(1, 2000),
+                LocalDate.now(), LocalDate.now().plusDays(1));
+        int problems = 0;
+        if (map.remove(0) != null || map.get(0) != null || map.size() != 0) problems++;
+        try {
+            map.put(0, sample);
+            problems++;
+        } catch (IllegalArgumentException expected) {
+            // rejected
+        }
+        for (long id = 1; id <= 100; id++) map.put(id, sample);
+        if (map.size() != 100) problems++;
+        return problems;
+    }
+
+    // average ns for one booking's id + insert + lookup + removal, 8 threads at once
+    private static long churn(Booking sample, boolean compact) throws InterruptedException {
+        int ops = 200_000;
+        Map<String, Booking> byUuid = new ConcurrentHashMap<>();
+        LongBookingMap byId = new LongBookingMap();
+        BookingIdGenerator generator = new BookingIdGenerator(1);
+        Thread[] workers = new Thread[THREADS];
+        long t0 = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < ops; i++) {
+                    if (compact) {
+                        long id = generator.nextId();
+                        byId.put(id, sample);
+                        if (byId.get(id) != sample || byId.remove(id) != sample) throw new AssertionError(id);
+                    } else {
+                        String id = UUID.randomUUID().toString();
+                        byUuid.put(id, sample);
+                        if (byUuid.get(id) != sample || byUuid.remove(id) != sample) throw new AssertionError(id);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) w.join();
+        return (System.nanoTime() - t0) / ((long) ops * THREADS);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
+
+// ====================== Benchmark: staff notifications ======================
+// Run with: java NotificationBenchmark
+// 4 threads check guests in and out of 40 rooms while each notifier delivery costs 200 us of
+// simulated I/O. Compares booking latency when that I/O runs inline (the old notifyStaff)
+// with the dispatcher, and shows how many events were coalesced or shed under load.
+class NotificationBenchmark {
+    private static final int THREADS = 4, OPS = 2_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        StaffNotifier slow = batch -> LockSupport.parkNanos(200_000);
+        try (Hotel hotel = new Hotel("Benchmark Towers", 0, new NotificationDispatcher(StaffNotifier.DISCARD, 1_024, 20, 64))) {
+            long[] inline = run(hotel, slow);
+            System.out.printf("inline notifier : p50 %,9d ns | p99 %,9d ns per check-in + checkout%n", inline[0], inline[1]);
+        }
+        NotificationDispatcher dispatcher = new NotificationDispatcher(slow, 1_024, 20, 64);
+        try (Hotel hotel = new Hotel("Benchmark Towers", 0, dispatcher)) {
+            long[] async = run(hotel, null);
+            System.out.printf("dispatcher      : p50 %,9d ns | p99 %,9d ns per check-in + checkout%n", async[0], async[1]);
+        }
+        System.out.println(dispatcher);
+        System.out.printf("events per notification: %.1f%n", (double) dispatcher.published() / Math.max(1, dispatcher.delivered()));
+        int bad = closeRacesMiscounted();
+        System.out.println("close races that lost or miscounted events: " + bad + "/50");
+        if (bad > 0) System.exit(1);
+    }
+
+    // publishers keep going while the dispatcher closes; every event publish() accepted must
+    // reach the notifier, and the rest must be counted as dropped
+    private static int closeRacesMiscounted() throws InterruptedException {
+        int bad = 0;
+        for (int round = 0; round < 50; round++) {
+            LongAdder received = new LongAdder(), accepted = new LongAdder(), attempts = new LongAdder();
+            NotificationDispatcher dispatcher = new NotificationDispatcher(batch -> {
+                for (StaffNotification n : batch) received.add(n.count(NotificationKind.NEW_BOOKING));
+            }, 1_024, 1, 64);
+            Thread[] workers = new Thread[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                int room = t;
+                workers[t] = new Thread(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        attempts.increment();
+                        if (dispatcher.publish(room, NotificationKind.NEW_BOOKING)) accepted.increment();
+                    }
+                });
+                workers[t].start();
+            }
+            Thread.sleep(1);
+            dispatcher.close();
+            for (Thread w : workers) w.join();
+            if (received.sum() != accepted.sum() || dispatcher.published() != accepted.sum()
+                    || dispatcher.published() + dispatcher.dropped() != attempts.sum() || dispatcher.pending() != 0) {
+                bad++;
+            }
+        }
+        return bad;
+    }
+
+    // {p50, p99} of one walk-in plus its checkout; 'inline' != null also delivers each event itself
+    private static long[] run(Hotel hotel, StaffNotifier inline) throws InterruptedException {
+        for (int i = 0; i < 40; i++) hotel.addRoom(new SingleRoom(100 + i, 2000));
+        long[][] latencies = new long[THREADS][OPS];
+        Thread[] workers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            long[] mine = latencies[t];
+            workers[t] = new Thread(() -> {
+                Guest guest = new Guest("Load", "load@example.com");
+                for (int i = 0; i < OPS; i++) {
+                    long t0 = System.nanoTime();
+                    Booking b = hotel.bookRoom(RoomType.SINGLE, guest, 1);
+                    if (b == null) continue;
+                    if (inline != null) inline.deliver(List.of(new StaffNotification(b.getRoom().getRoomNumber(), t0)));
+                    hotel.checkout(b.getBookingId());
+                    if (inline != null) inline.deliver(List.of(new StaffNotification(b.getRoom().getRoomNumber(), t0)));
+                    mine[i] = System.nanoTime() - t0;
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) w.join();
+        long[] all = new long[THREADS * OPS];
+        for (int t = 0; t < THREADS; t++) System.arraycopy(latencies[t], 0, all, t * OPS, OPS);
+        Arrays.sort(all);
+        return new long[]{all[all.length / 2], all[(int) (all.length * 0.99)]};
+    }
+}
+
 public class HotelManagementSystem {
 
     public static void main(String[] args) {
@@ -168,7 +1394,20 @@ public class HotelManagementSystem {
 
         // Checkout Simulation
         System.out.println("\n---- After 2 Days ----");
-        double billAmount = hotel.checkout(booking.getBookingId());
+        double billAmount = hotel.checkout(booking.getBookingCode());
         System.out.println("Total Bill for Srimani: ₹" + billAmount);
+
+        // Booking ahead: the suite for a long weekend next month
+        System.out.println("\n---- Reserving ahead ----");
+        LocalDate friday = LocalDate.now().plusDays(30);
+        Booking weekend = hotel.reserve(RoomType.SUITE, srimani, friday, friday.plusDays(3));
+        weekend.printBookingDetails();
+        System.out.println("Suites free that weekend: " + hotel.findAvailableRooms(RoomType.SUITE, friday, friday.plusDays(3)).size());
+        System.out.println("Suites free tonight: " + hotel.findAvailableRooms(RoomType.SUITE, LocalDate.now(), LocalDate.now().plusDays(1)).size());
+
+        // staff notifications arrive in the background, one per room per window
+        System.out.println("\n---- Staff notifications ----");
+        hotel.close();
+        System.out.println(hotel.getNotifications());
     }
 }
\ No newline at end of file
@@ -1,4 +1,420 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+// ---------------------------- RANDOMNESS (seedable, splittable) ----------------------------
+// SplitMix64: a single long of state, nothing allocated per draw, and split() hands out an
+// independent child stream. The world owns the root; each character owns a child, so a tick
+// is reproducible from one seed no matter which thread runs which character.
+class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private long state;
+
+    public GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    // rewinds in place (e.g. for replays) without allocating a new generator
+    public void reseed(long seed) {
+        this.state = seed;
+    }
+
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // multiply-shift range reduction; the bias is below 2^-24 for the small bounds used here
+    public int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    public GameRandom split() {
+        return new GameRandom(nextLong());
+    }
+}
+
+// ---------------------------- GAME EVENTS (structured, async logging) ----------------------------
+// Combat code reports what happened as typed events carrying ids and numbers instead of
+// building strings. A sink decides what (if anything) to do with them: the no-op sink costs a
+// single level check, and AsyncEventSink hands events to a background writer through a
+// lock-free ring buffer so the simulation never waits on I/O or the stdout lock.
+enum EventLevel { DEBUG, INFO, WARN }
+
+enum GameEventType {
+    TICK(EventLevel.INFO),
+    SPAWNED(EventLevel.INFO),
+    MOVED(EventLevel.DEBUG),
+    APPROACHING(EventLevel.DEBUG),
+    IDLE(EventLevel.DEBUG),
+    STRATEGY_CHANGED(EventLevel.INFO),
+    STANCE(EventLevel.DEBUG),
+    MANA(EventLevel.DEBUG),
+    BONUS(EventLevel.INFO),
+    ATTACKED(EventLevel.INFO),
+    DAMAGED(EventLevel.INFO),
+    DIED(EventLevel.WARN),
+    HEALED(EventLevel.INFO),
+    ITEM_PICKED(EventLevel.INFO),
+    ITEM_USED(EventLevel.INFO),
+    ITEM_MISSING(EventLevel.INFO),
+    REJECTED(EventLevel.INFO);
+
+    static final GameEventType[] VALUES = values();
+    final EventLevel level;
+
+    GameEventType(EventLevel level) { this.level = level; }
+}
+
+// the class-specific extra damage a BONUS event reports; the text around the amount is fixed
+// here so every writer renders the same line the simulation has always printed
+enum BonusEffect {
+    HEAVY_STRIKE(" performs a heavy strike! (+", ")"),
+    SPELL_BURN("'s spell burns the target (+", ")."),
+    LONG_RANGE_CRITICAL(" lands a long-range critical (+", ")!");
+
+    private final String beforeAmount, afterAmount;
+
+    BonusEffect(String beforeAmount, String afterAmount) {
+        this.beforeAmount = beforeAmount;
+        this.afterAmount = afterAmount;
+    }
+
+    String describe(String name, int amount) { return name + beforeAmount + amount + afterAmount; }
+}
+
+// Every event has the same flat shape so it fits a preallocated ring slot:
+// actor/target ids, up to four ints, the actor itself (for its name) and an optional detail
+// (another character, an item, a constant message or a BonusEffect). Typed helpers check the
+// level first, so a disabled event costs one call and one comparison.
+interface GameEventSink {
+    GameEventSink NO_OP = new GameEventSink() {
+        @Override public boolean accepts(EventLevel level) { return false; }
+        @Override public void emit(GameEventType type, int actor, int target, int a, int b, int c, int d,
+                                   Object actorRef, Object detail) {}
+    };
+
+    boolean accepts(EventLevel level);
+
+    void emit(GameEventType type, int actor, int target, int a, int b, int c, int d, Object actorRef, Object detail);
+
+    // blocks until everything emitted so far has reached the writer
+    default void flush() {}
+
+    default void close() {}
+
+    default void tick(int tickNo) {
+        if (accepts(GameEventType.TICK.level)) emit(GameEventType.TICK, 0, 0, tickNo, 0, 0, 0, null, null);
+    }
+
+    default void spawned(Character c) {
+        if (accepts(GameEventType.SPAWNED.level))
+            emit(GameEventType.SPAWNED, c.getId(), 0, c.getX(), c.getY(), c.getHealth(), c.getMaxHealth(), c, null);
+    }
+
+    default void moved(Character c) {
+        if (accepts(GameEventType.MOVED.level))
+            emit(GameEventType.MOVED, c.getId(), 0, c.getX(), c.getY(), 0, 0, c, null);
+    }
+
+    default void approaching(Character c, Character enemy) {
+        if (accepts(GameEventType.APPROACHING.level))
+            emit(GameEventType.APPROACHING, c.getId(), enemy.getId(), 0, 0, 0, 0, c, enemy);
+    }
+
+    default void idle(Character c) {
+        if (accepts(GameEventType.IDLE.level)) emit(GameEventType.IDLE, c.getId(), 0, 0, 0, 0, 0, c, null);
+    }
+
+    default void strategyChanged(Character c, CombatStrategy s) {
+        if (accepts(GameEventType.STRATEGY_CHANGED.level))
+            emit(GameEventType.STRATEGY_CHANGED, c.getId(), 0, 0, 0, 0, 0, c, s.getClass().getSimpleName());
+    }
+
+    default void stance(Character c, String description) {
+        if (accepts(GameEventType.STANCE.level)) emit(GameEventType.STANCE, c.getId(), 0, 0, 0, 0, 0, c, description);
+    }
+
+    default void mana(Character c, int spent, int left) {
+        if (accepts(GameEventType.MANA.level)) emit(GameEventType.MANA, c.getId(), 0, spent, left, 0, 0, c, null);
+    }
+
+    default void bonus(Character c, int amount, BonusEffect effect) {
+        if (accepts(GameEventType.BONUS.level))
+            emit(GameEventType.BONUS, c.getId(), 0, amount, 0, 0, 0, c, effect);
+    }
+
+    default void attacked(Character attacker, Character target, int damage) {
+        if (accepts(GameEventType.ATTACKED.level))
+            emit(GameEventType.ATTACKED, attacker.getId(), target.getId(), damage, 0, 0, 0, attacker, target);
+    }
+
+    default void damaged(Character c, int blocked, int damage, int health) {
+        if (accepts(GameEventType.DAMAGED.level))
+            emit(GameEventType.DAMAGED, c.getId(), 0, blocked, damage, health, c.getMaxHealth(), c, null);
+    }
+
+    default void died(Character c, String epitaph) {
+        if (accepts(GameEventType.DIED.level)) emit(GameEventType.DIED, c.getId(), 0, 0, 0, 0, 0, c, epitaph);
+    }
+
+    default void healed(Character c, int amount) {
+        if (accepts(GameEventType.HEALED.level))
+            emit(GameEventType.HEALED, c.getId(), 0, amount, c.getHealth(), c.getMaxHealth(), 0, c, null);
+    }
+
+    default void itemPicked(Character c, String item) {
+        if (accepts(GameEventType.ITEM_PICKED.level)) emit(GameEventType.ITEM_PICKED, c.getId(), 0, 0, 0, 0, 0, c, item);
+    }
+
+    default void itemUsed(Character c, String item) {
+        if (accepts(GameEventType.ITEM_USED.level)) emit(GameEventType.ITEM_USED, c.getId(), 0, 0, 0, 0, 0, c, item);
+    }
+
+    default void itemMissing(Character c, String item) {
+        if (accepts(GameEventType.ITEM_MISSING.level)) emit(GameEventType.ITEM_MISSING, c.getId(), 0, 0, 0, 0, 0, c, item);
+    }
+
+    // an action that could not happen; 'reason' is a constant message such as "is already down."
+    default void rejected(Character c, String reason) {
+        if (accepts(GameEventType.REJECTED.level)) emit(GameEventType.REJECTED, c.getId(), 0, 0, 0, 0, 0, c, reason);
+    }
+}
+
+// where an AsyncEventSink's background thread delivers events
+interface GameEventWriter {
+    void write(GameEventType type, int actor, int target, int a, int b, int c, int d,
+               Object actorRef, Object detail) throws IOException;
+
+    default void flush() throws IOException {}
+
+    default void close() throws IOException {}
+}
+
+// Multi-producer, single-consumer ring of preallocated slots. Producers claim a sequence with
+// a CAS (or drop the event and count it when the ring is full, so ticks never block on
+// logging), fill the slot's primitive fields and publish it by writing the sequence into the
+// slot. The writer thread consumes slots in sequence order.
+class AsyncEventSink implements GameEventSink {
+    private final EventLevel minLevel;
+    private final GameEventWriter writer;
+    private final int mask;
+    private final byte[] types;
+    private final int[] actors, targets, as, bs, cs, ds;
+    private final Object[] actorRefs, details;
+    private final AtomicLongArray published; // sequence stored in each slot once it is readable
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long consumed = 0;
+    private volatile boolean running = true;
+    private final Thread drainer;
+
+    public AsyncEventSink(GameEventWriter writer, EventLevel minLevel, int capacity) {
+        if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("capacity must be a power of two");
+        this.writer = writer;
+        this.minLevel = minLevel;
+        this.mask = capacity - 1;
+        types = new byte[capacity];
+        actors = new int[capacity];
+        targets = new int[capacity];
+        as = new int[capacity];
+        bs = new int[capacity];
+        cs = new int[capacity];
+        ds = new int[capacity];
+        actorRefs = new Object[capacity];
+        details = new Object[capacity];
+        published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) published.set(i, -1);
+
+        drainer = new Thread(this::drainLoop, "game-event-writer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @Override
+    public boolean accepts(EventLevel level) {
+        return level.ordinal() >= minLevel.ordinal();
+    }
+
+    @Override
+    public void emit(GameEventType type, int actor, int target, int a, int b, int c, int d,
+                     Object actorRef, Object detail) {
+        long seq;
+        do {
+            seq = claimed.get();
+            if (seq - consumed > mask) { // full: the writer is behind, shed the event
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(seq, seq + 1));
+
+        int i = (int) (seq & mask);
+        types[i] = (byte) type.ordinal();
+        actors[i] = actor;
+        targets[i] = target;
+        as[i] = a;
+        bs[i] = b;
+        cs[i] = c;
+        ds[i] = d;
+        actorRefs[i] = actorRef;
+        details[i] = detail;
+        published.lazySet(i, seq); // release: the fields above become visible with it
+    }
+
+    public long droppedEvents() { return dropped.get(); }
+
+    @Override
+    public void flush() {
+        long target = claimed.get();
+        while (consumed < target && drainer.isAlive()) LockSupport.parkNanos(100_000);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+            writer.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void drainLoop() {
+        long next = 0;
+        while (true) {
+            int i = (int) (next & mask);
+            if (published.get(i) == next) {
+                try {
+                    writer.write(GameEventType.VALUES[types[i]], actors[i], targets[i], as[i], bs[i], cs[i], ds[i],
+                            actorRefs[i], details[i]);
+                } catch (IOException e) {
+                    dropped.incrementAndGet(); // a failing writer must not stall the game
+                }
+                actorRefs[i] = null;
+                details[i] = null;
+                consumed = ++next;
+            } else if (running || next < claimed.get()) {
+                if (!running) Thread.onSpinWait(); // a claimed slot is about to be published
+                else LockSupport.parkNanos(50_000);
+            } else {
+                return;
+            }
+        }
+    }
+}
+
+// renders events as the human-readable lines the simulation has always printed
+class TextEventWriter implements GameEventWriter {
+    private final PrintStream out;
+
+    public TextEventWriter(PrintStream out) { this.out = out; }
+
+    @Override
+    public void write(GameEventType type, int actor, int target, int a, int b, int c, int d,
+                      Object actorRef, Object detail) {
+        String name = actorRef instanceof Character ? ((Character) actorRef).getName() : "";
+        switch (type) {
+            case TICK: out.println("\n=== World Tick #" + a + " ==="); break;
+            case SPAWNED: out.println("Spawned: [" + actor + "] " + name + " HP:" + c + "/" + d + " Pos:(" + a + "," + b + ")"); break;
+            case MOVED: out.println(name + " moved to (" + a + "," + b + ")."); break;
+            case APPROACHING: out.println(name + " closes distance to " + ((Character) detail).getName()); break;
+            case IDLE: out.println(name + " waits (no enemies)."); break;
+            case STRATEGY_CHANGED: out.println(name + " switched strategy to " + detail); break;
+            case STANCE: out.println(name + " uses " + detail); break;
+            case MANA:
+                if (a > 0) out.println(name + " casts a spell (-" + a + " mana). Mana left: " + b);
+                else out.println(name + " is low on mana; weak hit.");
+                break;
+            case BONUS: out.println(((BonusEffect) detail).describe(name, a)); break;
+            case ATTACKED: out.println(name + " attacks " + ((Character) detail).getName() + " dealing " + a + " damage."); break;
+            case DAMAGED: out.println(name + " defends with " + a + " block, receives " + b + " damage. (HP: " + Math.max(0, c) + "/" + d + ")"); break;
+            case DIED: out.println(name + " " + detail); break;
+            case HEALED: out.println(name + " used Health Potion. Healed " + a + ". (HP: " + b + "/" + c + ")"); break;
+            case ITEM_PICKED: out.println(name + " picked up: " + detail); break;
+            case ITEM_USED: out.println(name + " used " + detail + ". (No effect implemented.)"); break;
+            case ITEM_MISSING: out.println(name + " doesn't have " + detail); break;
+            case REJECTED: out.println(name + " " + detail); break;
+        }
+    }
+
+    @Override
+    public void flush() { out.flush(); }
+}
+
+// compact binary log: a fixed 25-byte record per event (type, actor, target, a..d) followed by
+// a short length and the UTF-8 detail text (length 0 when the event carries none)
+class BinaryEventWriter implements GameEventWriter {
+    private static final int MAGIC = 0x47455631; // "GEV1"
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    public BinaryEventWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC);
+    }
+
+    @Override
+    public void write(GameEventType type, int actor, int target, int a, int b, int c, int d,
+                      Object actorRef, Object detail) throws IOException {
+        byte[] text = detail instanceof String ? ((String) detail).getBytes(StandardCharsets.UTF_8)
+                : detail instanceof BonusEffect ? ((BonusEffect) detail).name().getBytes(StandardCharsets.UTF_8) : null;
+        if (buffer.remaining() < 27 + (text == null ? 0 : text.length)) drain();
+        buffer.put((byte) type.ordinal()).putInt(actor).putInt(target).putInt(a).putInt(b).putInt(c).putInt(d);
+        buffer.putShort((short) (text == null ? 0 : text.length));
+        if (text != null) buffer.put(text);
+    }
+
+    @Override
+    public void flush() throws IOException { drain(); }
+
+    @Override
+    public void close() throws IOException {
+        drain();
+        channel.close();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
 
 // ---------------------------- COMBAT STRATEGY (Strategy Pattern) ----------------------------
 interface CombatStrategy {
@@ -9,7 +425,7 @@ interface CombatStrategy {
 class AggressiveStrategy implements CombatStrategy {
     @Override
     public int executeAttack(Character attacker, Character target) {
-        System.out.println(attacker.getName() + " uses Aggressive stance (bonus +5 damage).");
+        attacker.events().stance(attacker, "Aggressive stance (bonus +5 damage).");
         return 5;
     }
 }
@@ -17,77 +433,205 @@ class AggressiveStrategy implements CombatStrategy {
 class DefensiveStrategy implements CombatStrategy {
     @Override
     public int executeAttack(Character attacker, Character target) {
-        System.out.println(attacker.getName() + " uses Defensive stance (no bonus, reduces incoming next hit).");
+        attacker.events().stance(attacker, "Defensive stance (no bonus, reduces incoming next hit).");
         // defensive gives no attack bonus; defender gets reduced incoming damage via a flag
         attacker.setTempDefenseBonus(3); // attacker "prepares defense" for next incoming hit
         return 0;
     }
 }
 
+// ---------------------------- MOVEMENT LISTENER (Observer) ----------------------------
+interface MovementListener {
+    // called after a character's position changed, with the position it moved from
+    void onMoved(Character c, int oldX, int oldY);
+}
+
+// ---------------------------- CHARACTER STORE (Struct of Arrays) ----------------------------
+// Hot per-character state lives in parallel primitive arrays indexed by slot, so world scans
+// walk a few contiguous int[]s instead of hopping between Character objects. Each Character
+// is a view onto one row; a world's store keeps its rows dense and in spawn order.
+class CharacterStore {
+    int[] ids, health, maxHealth, x, y, tempDefenseBonus;
+    int[] inventoryVersion; // bumped on every inventory change, so replication can skip unchanged ones
+    Character[] views;
+    private int size;
+
+    public CharacterStore(int capacity) {
+        ids = new int[capacity];
+        health = new int[capacity];
+        maxHealth = new int[capacity];
+        x = new int[capacity];
+        y = new int[capacity];
+        tempDefenseBonus = new int[capacity];
+        inventoryVersion = new int[capacity];
+        views = new Character[capacity];
+    }
+
+    public int size() { return size; }
+    public Character view(int slot) { return views[slot]; }
+
+    public int add(Character view, int id, int hp, int maxHp, int px, int py, int defenseBonus) {
+        if (size == ids.length) grow();
+        int slot = size++;
+        ids[slot] = id;
+        health[slot] = hp;
+        maxHealth[slot] = maxHp;
+        x[slot] = px;
+        y[slot] = py;
+        tempDefenseBonus[slot] = defenseBonus;
+        inventoryVersion[slot] = 0;
+        views[slot] = view;
+        return slot;
+    }
+
+    // copies a row from another store (used when a character spawns into or leaves a world)
+    public int copyFrom(CharacterStore src, int srcSlot) {
+        int slot = add(src.views[srcSlot], src.ids[srcSlot], src.health[srcSlot], src.maxHealth[srcSlot],
+                src.x[srcSlot], src.y[srcSlot], src.tempDefenseBonus[srcSlot]);
+        inventoryVersion[slot] = src.inventoryVersion[srcSlot];
+        return slot;
+    }
+
+    // drops every row whose health is gone in one pass, sliding survivors down so the
+    // store stays dense and in its original order; each removed view is handed to 'onRemoved'
+    // before its row is overwritten
+    public int compactDead(Consumer<Character> onRemoved) {
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (health[read] <= 0) {
+                onRemoved.accept(views[read]);
+                continue;
+            }
+            if (read != write) moveRow(read, write);
+            write++;
+        }
+        int removed = size - write;
+        Arrays.fill(views, write, size, null);
+        size = write;
+        return removed;
+    }
+
+    private void moveRow(int from, int to) {
+        ids[to] = ids[from];
+        health[to] = health[from];
+        maxHealth[to] = maxHealth[from];
+        x[to] = x[from];
+        y[to] = y[from];
+        tempDefenseBonus[to] = tempDefenseBonus[from];
+        inventoryVersion[to] = inventoryVersion[from];
+        views[to] = views[from];
+        views[to].relocate(to);
+    }
+
+    private void grow() {
+        int capacity = Math.max(4, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        health = Arrays.copyOf(health, capacity);
+        maxHealth = Arrays.copyOf(maxHealth, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        tempDefenseBonus = Arrays.copyOf(tempDefenseBonus, capacity);
+        inventoryVersion = Arrays.copyOf(inventoryVersion, capacity);
+        views = Arrays.copyOf(views, capacity);
+    }
+}
+
 // ---------------------------- ABSTRACT CHARACTER ----------------------------
+// A thin view over one CharacterStore row plus the cold, object-shaped state
+// (name, inventory, strategy) that the tick loop rarely touches.
 abstract class Character {
     private static int idCounter = 1;
 
-    private final int id;
     private final String name;
-    private int health;
-    private final int maxHealth;
-    private int x, y; // simple 2D position in the world
+    private CharacterStore store; // id, health, maxHealth, x, y, tempDefenseBonus live here
+    private int slot;
     private List<String> inventory = new ArrayList<>();
     private CombatStrategy combatStrategy = new AggressiveStrategy(); // default
-    private int tempDefenseBonus = 0; // temporary defense reduction for next incoming hit
+    private MovementListener movementListener; // set by the world this character lives in
+    private GameEventSink events = GameEventSink.NO_OP; // the world's sink once spawned
+    private GameRandom random = new GameRandom(System.nanoTime()); // replaced by a seeded stream on spawn
+    int tickIndex; // position in the world's per-tick snapshot
 
     public Character(String name, int maxHealth, int startX, int startY) {
-        this.id = idCounter++;
         this.name = name;
-        this.maxHealth = maxHealth;
-        this.health = maxHealth;
-        this.x = startX;
-        this.y = startY;
+        // until it spawns into a world a character keeps its row in a private one-row store
+        this.store = new CharacterStore(1);
+        this.slot = store.add(this, idCounter++, maxHealth, maxHealth, startX, startY, 0);
     }
 
     // Encapsulated getters/setters
-    public int getId() { return id; }
+    public int getId() { return store.ids[slot]; }
     public String getName() { return name; }
-    public int getHealth() { return health; }
-    public int getMaxHealth() { return maxHealth; }
-    public boolean isAlive() { return health > 0; }
-    public int getX() { return x; }
-    public int getY() { return y; }
+    public int getHealth() { return store.health[slot]; }
+    public int getMaxHealth() { return store.maxHealth[slot]; }
+    public boolean isAlive() { return store.health[slot] > 0; }
+    public int getX() { return store.x[slot]; }
+    public int getY() { return store.y[slot]; }
     public List<String> getInventory() { return Collections.unmodifiableList(inventory); }
 
+    // moves this character's row into 'target' (spawn) or back into a private store (removal)
+    void attachTo(CharacterStore target) {
+        this.slot = target.copyFrom(store, slot);
+        this.store = target;
+    }
+
+    void detach() {
+        CharacterStore own = new CharacterStore(1);
+        this.slot = own.copyFrom(store, slot);
+        this.store = own;
+    }
+
+    void relocate(int newSlot) { this.slot = newSlot; }
+
     public void setCombatStrategy(CombatStrategy s) {
         this.combatStrategy = s;
-        System.out.println(name + " switched strategy to " + s.getClass().getSimpleName());
+        events.strategyChanged(this, s);
     }
 
-    public void setTempDefenseBonus(int b) { this.tempDefenseBonus = b; }
+    void setMovementListener(MovementListener l) { this.movementListener = l; }
+    void setEventSink(GameEventSink sink) { this.events = sink; }
+    protected GameEventSink events() { return events; }
+    void setRandom(GameRandom r) { this.random = r; }
+    // per-character stream: only ever used by the thread processing this character
+    protected GameRandom random() { return random; }
+
+    public void setTempDefenseBonus(int b) { store.tempDefenseBonus[slot] = b; }
     public int consumeTempDefenseBonus() {
-        int b = this.tempDefenseBonus;
-        this.tempDefenseBonus = 0;
+        int b = store.tempDefenseBonus[slot];
+        store.tempDefenseBonus[slot] = 0;
         return b;
     }
 
     // movement (abstraction)
     public void move(int dx, int dy) {
         if (!isAlive()) {
-            System.out.println(name + " cannot move (dead).");
+            events.rejected(this, "cannot move (dead).");
             return;
         }
-        this.x += dx;
-        this.y += dy;
-        System.out.println(name + " moved to (" + x + "," + y + ").");
+        int oldX = store.x[slot], oldY = store.y[slot];
+        store.x[slot] = oldX + dx;
+        store.y[slot] = oldY + dy;
+        if (movementListener != null) movementListener.onMoved(this, oldX, oldY);
+        events.moved(this);
     }
 
     // polymorphic attack: subclasses provide baseDamage and special behaviour
     public void attack(Character target) {
+        int totalDamage = prepareAttack(target);
+        if (totalDamage >= 0) target.defend(totalDamage);
+    }
+
+    // attacker-side half of an attack: rolls the damage and only mutates this character
+    // (mana, stance, random stream), so many attackers can prepare in parallel.
+    // returns -1 when no attack happens
+    int prepareAttack(Character target) {
         if (!isAlive()) {
-            System.out.println(name + " can't attack (dead).");
-            return;
+            events.rejected(this, "can't attack (dead).");
+            return -1;
         }
         if (!target.isAlive()) {
-            System.out.println(target.getName() + " is already down.");
-            return;
+            events.rejected(target, "is already down.");
+            return -1;
         }
 
         int base = baseDamage();
@@ -97,17 +641,17 @@ abstract class Character {
         // class-specific effects
         totalDamage += classSpecificAttackEffect(target);
 
-        System.out.println(name + " attacks " + target.getName() + " dealing " + totalDamage + " damage.");
-        target.defend(totalDamage);
+        events.attacked(this, target, totalDamage);
+        return totalDamage;
     }
 
     // defense reduces damage; subclasses can override for shields, armor, etc.
     public void defend(int incomingDamage) {
         int defense = consumeTempDefenseBonus();
         int finalDamage = Math.max(0, incomingDamage - defense);
-        this.health -= finalDamage;
-        System.out.println(name + " defends with " + defense + " block, receives " + finalDamage + " damage. (HP: " + Math.max(0, health) + "/" + maxHealth + ")");
-        if (this.health <= 0) {
+        int health = store.health[slot] -= finalDamage;
+        events.damaged(this, defense, finalDamage, health);
+        if (health <= 0) {
             onDeath();
         }
     }
@@ -115,23 +659,26 @@ abstract class Character {
     // pick up item
     public void pickUp(String item) {
         inventory.add(item);
-        System.out.println(name + " picked up: " + item);
+        store.inventoryVersion[slot]++;
+        events.itemPicked(this, item);
     }
 
     // heal / use potion
     public void useItem(String item) {
         if (!inventory.contains(item)) {
-            System.out.println(name + " doesn't have " + item);
+            events.itemMissing(this, item);
             return;
         }
         if (item.equalsIgnoreCase("Health Potion")) {
             int heal = 30;
-            this.health = Math.min(maxHealth, this.health + heal);
+            store.health[slot] = Math.min(getMaxHealth(), getHealth() + heal);
             inventory.remove(item);
-            System.out.println(name + " used Health Potion. Healed " + heal + ". (HP: " + health + "/" + maxHealth + ")");
+            store.inventoryVersion[slot]++;
+            events.healed(this, heal);
         } else {
-            System.out.println(name + " used " + item + ". (No effect implemented.)");
+            events.itemUsed(this, item);
             inventory.remove(item);
+            store.inventoryVersion[slot]++;
         }
     }
 
@@ -142,7 +689,7 @@ abstract class Character {
 
     @Override
     public String toString() {
-        return "[" + id + "] " + name + " HP:" + health + "/" + maxHealth + " Pos:(" + x + "," + y + ")";
+        return "[" + getId() + "] " + name + " HP:" + getHealth() + "/" + getMaxHealth() + " Pos:(" + getX() + "," + getY() + ")";
     }
 }
 
@@ -160,8 +707,8 @@ class Warrior extends Character {
     @Override
     protected int classSpecificAttackEffect(Character target) {
         // Warrior has 20% chance to do a heavy strike (+10)
-        if (new Random().nextInt(100) < 20) {
-            System.out.println(getName() + " performs a heavy strike! (+10)");
+        if (random().nextInt(100) < 20) {
+            events().bonus(this, 10, BonusEffect.HEAVY_STRIKE);
             return 10;
         }
         return 0;
@@ -169,7 +716,7 @@ class Warrior extends Character {
 
     @Override
     protected void onDeath() {
-        System.out.println(getName() + " (Warrior) has fallen in battle!");
+        events().died(this, "(Warrior) has fallen in battle!");
     }
 }
 
@@ -180,15 +727,17 @@ class Mage extends Character {
         super(name, 100, x, y);
     }
 
+    public int getMana() { return mana; }
+
     @Override
     protected int baseDamage() {
         // mage uses mana for magic shots; if insufficient mana, low base damage
         if (mana >= 20) {
             mana -= 20;
-            System.out.println(getName() + " casts a spell (-20 mana). Mana left: " + mana);
+            events().mana(this, 20, mana);
             return 30;
         } else {
-            System.out.println(getName() + " is low on mana; weak hit.");
+            events().mana(this, 0, mana);
             return 8;
         }
     }
@@ -196,8 +745,8 @@ class Mage extends Character {
     @Override
     protected int classSpecificAttackEffect(Character target) {
         // mage can apply burn that deals +5 immediate damage sometimes
-        if (new Random().nextInt(100) < 25) {
-            System.out.println(getName() + "'s spell burns the target (+5).");
+        if (random().nextInt(100) < 25) {
+            events().bonus(this, 5, BonusEffect.SPELL_BURN);
             return 5;
         }
         return 0;
@@ -205,7 +754,7 @@ class Mage extends Character {
 
     @Override
     protected void onDeath() {
-        System.out.println(getName() + " (Mage) collapsed in arcane energy!");
+        events().died(this, "(Mage) collapsed in arcane energy!");
     }
 }
 
@@ -226,8 +775,8 @@ class Archer extends Character {
         int dx = Math.abs(getX() - target.getX());
         int dy = Math.abs(getY() - target.getY());
         int dist = Math.max(dx, dy);
-        if (dist >= 2 && new Random().nextInt(100) < 30) {
-            System.out.println(getName() + " lands a long-range critical (+12)!");
+        if (dist >= 2 && random().nextInt(100) < 30) {
+            events().bonus(this, 12, BonusEffect.LONG_RANGE_CRITICAL);
             return 12;
         }
         return 0;
@@ -235,125 +784,1862 @@ class Archer extends Character {
 
     @Override
     protected void onDeath() {
-        System.out.println(getName() + " (Archer) has been taken down!");
+        events().died(this, "(Archer) has been taken down!");
     }
 }
 
-// ---------------------------- GAME WORLD (shared environment) ----------------------------
-class GameWorld {
-    private List<Character> characters = new ArrayList<>();
-    private int tickCount = 0;
+// ---------------------------- SPATIAL INDEX (Uniform Grid) ----------------------------
+// Buckets characters into square cells so nearest/range queries only visit nearby cells
+// instead of scanning the whole world. Cells are kept in an open-addressing table keyed
+// by the packed (cellX, cellY) pair, so lookups never box a key; cells that empty out are
+// unlinked and recycled, so characters wandering into new territory don't allocate.
+class SpatialGrid {
+    private static final long EMPTY = Long.MIN_VALUE;
 
-    public void addCharacter(Character c) {
-        characters.add(c);
-        System.out.println("Spawned: " + c);
+    private static final class Cell {
+        Character[] members = new Character[4];
+        int size;
+
+        void add(Character c) {
+            if (size == members.length) members = Arrays.copyOf(members, size * 2);
+            members[size++] = c;
+        }
+
+        void remove(Character c) {
+            for (int i = 0; i < size; i++) {
+                if (members[i] == c) {
+                    members[i] = members[--size];
+                    members[size] = null;
+                    return;
+                }
+            }
+        }
     }
 
-    public void removeDead() {
-        characters.removeIf(c -> !c.isAlive());
+    private final int cellSize;
+    private long[] keys = new long[64];
+    private Cell[] cells = new Cell[64];
+    private final ArrayDeque<Cell> spareCells = new ArrayDeque<>();
+    private int usedSlots = 0;
+    private int count = 0;
+    // bounding box of every cell ever occupied; limits how far a nearest search can ring out
+    private int minCx = Integer.MAX_VALUE, maxCx = Integer.MIN_VALUE;
+    private int minCy = Integer.MAX_VALUE, maxCy = Integer.MIN_VALUE;
+
+    public SpatialGrid(int cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be positive");
+        this.cellSize = cellSize;
+        Arrays.fill(keys, EMPTY);
     }
 
-    public Character findNearestEnemy(Character by) {
+    public int size() { return count; }
+
+    public void insert(Character c) {
+        cellFor(cellCoord(c.getX()), cellCoord(c.getY()), true).add(c);
+        count++;
+    }
+
+    public void remove(Character c) {
+        if (removeFrom(cellCoord(c.getX()), cellCoord(c.getY()), c)) count--;
+    }
+
+    // keeps the index in step with Character.move; a no-op while the character stays in its cell
+    public void move(Character c, int oldX, int oldY) {
+        int ocx = cellCoord(oldX), ocy = cellCoord(oldY);
+        int ncx = cellCoord(c.getX()), ncy = cellCoord(c.getY());
+        if (ocx == ncx && ocy == ncy) return;
+        removeFrom(ocx, ocy, c);
+        cellFor(ncx, ncy, true).add(c);
+    }
+
+    private boolean removeFrom(int cx, int cy, Character c) {
+        int i = indexOf(pack(cx, cy));
+        if (i < 0) return false;
+        Cell cell = cells[i];
+        int before = cell.size;
+        cell.remove(c);
+        if (cell.size == 0) unlink(i);
+        return cell.size < before;
+    }
+
+    // nearest living character other than 'by'; ties go to the lower id so results are stable
+    public Character findNearest(Character by) {
+        if (count == 0) return null;
+        int px = by.getX(), py = by.getY();
+        int cx = cellCoord(px), cy = cellCoord(py);
+        int maxRing = Math.max(Math.max(cx - minCx, maxCx - cx), Math.max(cy - minCy, maxCy - cy));
+
         Character best = null;
-        double bestDist = Double.MAX_VALUE;
-        for (Character c : characters) {
-            if (c == by || !c.isAlive()) continue;
-            // naive: everyone is enemy to everyone for this demo
-            double dist = Math.hypot(c.getX() - by.getX(), c.getY() - by.getY());
-            if (dist < bestDist) {
-                bestDist = dist;
-                best = c;
+        long bestDistSq = Long.MAX_VALUE;
+        for (int r = 0; r <= maxRing; r++) {
+            for (int gx = cx - r; gx <= cx + r; gx++) {
+                boolean edgeColumn = gx == cx - r || gx == cx + r;
+                for (int gy = cy - r; gy <= cy + r; gy += edgeColumn ? 1 : 2 * r) {
+                    Cell cell = cellFor(gx, gy, false);
+                    if (cell != null) {
+                        for (int i = 0; i < cell.size; i++) {
+                            Character c = cell.members[i];
+                            if (c == by || !c.isAlive()) continue;
+                            long d = distSq(px, py, c.getX(), c.getY());
+                            if (d < bestDistSq || (d == bestDistSq && c.getId() < best.getId())) {
+                                bestDistSq = d;
+                                best = c;
+                            }
+                        }
+                    }
+                    if (r == 0) break;
+                }
             }
+            // anything in ring r+1 or beyond is at least r whole cells away
+            long ringFloor = (long) r * cellSize;
+            if (best != null && bestDistSq <= ringFloor * ringFloor) break;
         }
         return best;
     }
 
-    // simple tick: each alive char moves randomly a bit and attacks nearest if in range
-    public void tick() {
-        tickCount++;
-        System.out.println("\n=== World Tick #" + tickCount + " ===");
-        // shuffle to avoid ordering bias
-        Collections.shuffle(characters);
-
-        for (Character c : new ArrayList<>(characters)) {
-            if (!c.isAlive()) continue;
-
-            // random move (small)
-            int dx = new Random().nextInt(3) - 1; // -1,0,1
-            int dy = new Random().nextInt(3) - 1;
-            c.move(dx, dy);
-
-            Character enemy = findNearestEnemy(c);
-            if (enemy != null) {
-                // if within attack range (distance <=2) attack; else maybe move towards
-                double dist = Math.hypot(enemy.getX() - c.getX(), enemy.getY() - c.getY());
-                if (dist <= 2.0) {
-                    c.attack(enemy);
-                } else {
-                    // move one step towards enemy
-                    int stepX = Integer.compare(enemy.getX(), c.getX());
-                    int stepY = Integer.compare(enemy.getY(), c.getY());
-                    c.move(stepX, stepY);
-                    System.out.println(c.getName() + " closes distance to " + enemy.getName());
+    // collects living characters (other than 'by') within Euclidean 'range' into 'out'
+    public int findWithinRange(Character by, int range, List<Character> out) {
+        int px = by.getX(), py = by.getY();
+        long rangeSq = (long) range * range;
+        int found = 0;
+        for (int gx = cellCoord(px - range); gx <= cellCoord(px + range); gx++) {
+            for (int gy = cellCoord(py - range); gy <= cellCoord(py + range); gy++) {
+                Cell cell = cellFor(gx, gy, false);
+                if (cell == null) continue;
+                for (int i = 0; i < cell.size; i++) {
+                    Character c = cell.members[i];
+                    if (c == by || !c.isAlive()) continue;
+                    if (distSq(px, py, c.getX(), c.getY()) <= rangeSq) {
+                        out.add(c);
+                        found++;
+                    }
                 }
-            } else {
-                System.out.println(c.getName() + " waits (no enemies).");
             }
         }
+        return found;
+    }
 
-        removeDead();
+    static long distSq(int x1, int y1, int x2, int y2) {
+        long dx = x1 - x2, dy = y1 - y2;
+        return dx * dx + dy * dy;
     }
 
-    public void showStatus() {
-        System.out.println("\n--- World Status ---");
-        for (Character c : characters) {
-            System.out.println(c);
+    private int cellCoord(int v) {
+        return Math.floorDiv(v, cellSize);
+    }
+
+    private static long pack(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) return i;
+        }
+        return -1;
+    }
+
+    private Cell cellFor(int cx, int cy, boolean create) {
+        long key = pack(cx, cy);
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) return cells[i];
+            i = (i + 1) & mask;
+        }
+        if (!create) return null;
+
+        if ((usedSlots + 1) * 2 > keys.length) {
+            grow();
+            return cellFor(cx, cy, true);
+        }
+        keys[i] = key;
+        Cell spare = spareCells.poll();
+        cells[i] = spare != null ? spare : new Cell();
+        usedSlots++;
+        minCx = Math.min(minCx, cx);
+        maxCx = Math.max(maxCx, cx);
+        minCy = Math.min(minCy, cy);
+        maxCy = Math.max(maxCy, cy);
+        return cells[i];
+    }
+
+    // linear-probing delete: shift later entries of the same probe run back into the hole
+    private void unlink(int hole) {
+        spareCells.push(cells[hole]);
+        int mask = keys.length - 1;
+        int j = hole;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == EMPTY) break;
+            int home = mix(keys[j]) & mask;
+            boolean stays = hole <= j ? (hole < home && home <= j) : (hole < home || home <= j);
+            if (stays) continue;
+            keys[hole] = keys[j];
+            cells[hole] = cells[j];
+            hole = j;
+        }
+        keys[hole] = EMPTY;
+        cells[hole] = null;
+        usedSlots--;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Cell[] oldCells = cells;
+        keys = new long[oldKeys.length * 2];
+        cells = new Cell[oldCells.length * 2];
+        Arrays.fill(keys, EMPTY);
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == EMPTY) continue;
+            int i = mix(oldKeys[j]) & mask;
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            cells[i] = oldCells[j];
         }
-        System.out.println("--------------------");
     }
 }
 
-// ---------------------------- SIMULATION (MAIN) ----------------------------
-public class GameApp {
-    public static void main(String[] args) throws InterruptedException {
-        System.out.println("🌍 Arcadia Realm — Simulation Start\n");
+// ---------------------------- INTEREST MANAGEMENT (area of interest) ----------------------------
+// told when one character comes into or drops out of another's view
+interface InterestListener {
+    void onEnter(Character observer, Character subject);
+    void onLeave(Character observer, Character subject);
+}
 
-        GameWorld world = new GameWorld();
+// Keeps, for every character, the set of others within its view radius. The relation is
+// symmetric, so when one character moves only pairs involving it can change: a grid range
+// query finds who is now in view and a pass over its current set finds who left. Work per
+// move therefore tracks local density, never world size, and the set of a character's
+// observers is exactly who needs its updates.
+class InterestManager {
+    private final SpatialGrid grid;
+    private final int viewRadius;
+    private final long viewRadiusSq;
+    private final InterestListener listener;
+    private final Map<Character, Set<Character>> views = new IdentityHashMap<>();
+    private final List<Character> inRange = new ArrayList<>(); // reused query buffer
+    private final List<Character> leaving = new ArrayList<>();
 
-        // Srimani joins as a Warrior
-        Character srimani = new Warrior("Srimani", 0, 0);
-        srimani.pickUp("Health Potion");
-        srimani.pickUp("Iron Sword");
+    InterestManager(SpatialGrid grid, int viewRadius, InterestListener listener) {
+        if (viewRadius <= 0) throw new IllegalArgumentException("viewRadius must be positive");
+        this.grid = grid;
+        this.viewRadius = viewRadius;
+        this.viewRadiusSq = (long) viewRadius * viewRadius;
+        this.listener = listener;
+    }
 
-        // Friends / enemies
-        Character archer = new Archer("Aditi", 3, 2);
-        Character mage = new Mage("Kiran", -2, -1);
-        Character orc = new Warrior("Orc Grunt", 5, 5); // enemy NPC warrior
+    public int getViewRadius() { return viewRadius; }
 
-        world.addCharacter(srimani);
-        world.addCharacter(archer);
-        world.addCharacter(mage);
-        world.addCharacter(orc);
+    // who 'c' can currently see; by symmetry also who receives 'c's updates
+    public Set<Character> visibleTo(Character c) {
+        Set<Character> view = views.get(c);
+        return view == null ? Collections.emptySet() : Collections.unmodifiableSet(view);
+    }
 
-        // Srimani chooses Aggressive strategy
-        srimani.setCombatStrategy(new AggressiveStrategy());
-        // Aditi prefers Defensive
-        archer.setCombatStrategy(new DefensiveStrategy());
-        // Kiran the mage stays aggressive (default)
+    public Set<Character> observersOf(Character c) {
+        return visibleTo(c);
+    }
 
-        world.showStatus();
+    void onSpawned(Character c) {
+        views.putIfAbsent(c, new HashSet<>());
+        onMoved(c);
+    }
 
-        // Run several ticks of the world
-        for (int i = 0; i < 6; i++) {
-            world.tick();
-            Thread.sleep(600); // simulate time passage (short)
-            // srimani uses a potion if health low
-            if (srimani.isAlive() && srimani.getHealth() < 60) {
-                srimani.useItem("Health Potion");
+    void onMoved(Character c) {
+        Set<Character> view = views.get(c);
+        if (view == null) return;
+
+        inRange.clear();
+        grid.findWithinRange(c, viewRadius, inRange);
+        for (int i = 0; i < inRange.size(); i++) {
+            Character other = inRange.get(i);
+            if (view.add(other)) {
+                views.computeIfAbsent(other, k -> new HashSet<>()).add(c);
+                listener.onEnter(c, other);
+                listener.onEnter(other, c);
             }
-            world.showStatus();
         }
 
+        leaving.clear();
+        for (Character other : view) {
+            if (!other.isAlive()
+                    || SpatialGrid.distSq(c.getX(), c.getY(), other.getX(), other.getY()) > viewRadiusSq) {
+                leaving.add(other);
+            }
+        }
+        for (int i = 0; i < leaving.size(); i++) unlink(c, leaving.get(i));
+    }
+
+    void onRemoved(Character c) {
+        Set<Character> view = views.remove(c);
+        if (view == null) return;
+        for (Character other : view) {
+            Set<Character> theirs = views.get(other);
+            if (theirs != null) theirs.remove(c);
+            listener.onLeave(other, c);
+            listener.onLeave(c, other);
+        }
+    }
+
+    private void unlink(Character a, Character b) {
+        views.get(a).remove(b);
+        Set<Character> theirs = views.get(b);
+        if (theirs != null) theirs.remove(a);
+        listener.onLeave(a, b);
+        listener.onLeave(b, a);
+    }
+}
+
+// ---------------------------- GAME WORLD (shared environment) ----------------------------
+class GameWorld implements MovementListener {
+    private static final int PARALLEL_THRESHOLD = 256; // below this a tick phase just runs inline
+    private static final long ATTACK_RANGE_SQ = 4;    // distance <= 2
+
+    private final CharacterStore store = new CharacterStore(64); // dense, in spawn order
+    private final Consumer<Character> retire = this::retire;
+    private final SpatialGrid grid;
+    private final long seed;
+    private final GameRandom worldRandom;
+    private final ForkJoinPool pool;
+    private GameEventSink events = GameEventSink.NO_OP;
+    private InterestManager interest; // null until area-of-interest tracking is enabled
+    private final PhaseChunk[] chunks; // reused every phase of every tick
+    private final RecursiveAction phase = new RecursiveAction() {
+        @Override
+        protected void compute() {
+            invokeAll(chunks);
+        }
+    };
+    private int tickCount = 0;
+
+    // phase bodies are built once so running a phase never allocates a lambda
+    private final IntConsumer rollStep = this::rollStep;
+    private final IntConsumer chooseAction = this::chooseAction;
+    private final IntConsumer resolveHits = this::resolveHits;
+
+    // per-tick scratch, indexed by position in 'order'; grown on demand and reused
+    private Character[] order = new Character[0];
+    private int[] stepX = new int[0], stepY = new int[0];
+    private int[] targetOf = new int[0];   // index of the attacked character, or -1
+    private int[] damageOf = new int[0];
+    private boolean[] approaching = new boolean[0];
+    private int[] hitStart = new int[1], hitCursor = new int[0], hitAttackers = new int[0];
+
+    public GameWorld() {
+        this(new Random().nextLong());
+    }
+
+    public GameWorld(long seed) {
+        // a cell a little wider than the attack range keeps most queries to 1-4 cells
+        this(seed, 4, ForkJoinPool.commonPool());
+    }
+
+    public GameWorld(long seed, int cellSize, ForkJoinPool pool) {
+        this.grid = new SpatialGrid(cellSize);
+        this.seed = seed;
+        this.worldRandom = new GameRandom(seed);
+        this.pool = pool;
+        this.chunks = new PhaseChunk[pool.getParallelism() * 4]; // a few per worker to even out load
+        for (int i = 0; i < chunks.length; i++) chunks[i] = new PhaseChunk();
+    }
+
+    // a reusable slice of a tick phase; reinitialize() lets the same task objects run again
+    private static final class PhaseChunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        IntConsumer body;
+        int from, to;
+
+        @Override
+        protected void compute() {
+            for (int i = from; i < to; i++) body.accept(i);
+        }
+    }
+
+    public void addCharacter(Character c) {
+        c.attachTo(store);
+        grid.insert(c);
+        c.setMovementListener(this);
+        c.setRandom(worldRandom.split()); // spawn order fixes each character's stream
+        c.setEventSink(events);
+        events.spawned(c);
+        if (interest != null) interest.onSpawned(c);
+    }
+
+    // routes this world's events (and those of everyone in it) to 'sink'
+    public void setEventSink(GameEventSink sink) {
+        this.events = sink;
+        for (int s = 0; s < store.size(); s++) store.view(s).setEventSink(sink);
+    }
+
+    // starts tracking who can see whom within 'viewRadius'; enter/leave changes go to 'listener'
+    public InterestManager enableInterestManagement(int viewRadius, InterestListener listener) {
+        interest = new InterestManager(grid, viewRadius, listener);
+        for (int s = 0; s < store.size(); s++) interest.onSpawned(store.view(s));
+        return interest;
+    }
+
+    @Override
+    public void onMoved(Character c, int oldX, int oldY) {
+        grid.move(c, oldX, oldY);
+        if (interest != null) interest.onMoved(c);
+    }
+
+    public void removeDead() {
+        store.compactDead(retire);
+    }
+
+    private void retire(Character c) {
+        grid.remove(c);
+        if (interest != null) interest.onRemoved(c);
+        c.setMovementListener(null);
+        c.setEventSink(GameEventSink.NO_OP);
+        c.detach(); // keeps the view readable for callers that still hold it
+    }
+
+    public Character findNearestEnemy(Character by) {
+        // naive: everyone is enemy to everyone for this demo
+        return grid.findNearest(by);
+    }
+
+    // everyone within 'range' of 'by' (enemies, for this demo), appended to 'out'
+    public int findEnemiesInRange(Character by, int range, List<Character> out) {
+        return grid.findWithinRange(by, range, out);
+    }
+
+    // reference linear scan, kept for the benchmark and as the definition of "nearest"
+    Character findNearestEnemyByScan(Character by) {
+        int bx = by.getX(), bY = by.getY();
+        int best = -1;
+        long bestDist = Long.MAX_VALUE;
+        for (int s = 0; s < store.size(); s++) {
+            if (store.health[s] <= 0 || store.views[s] == by) continue;
+            long dist = SpatialGrid.distSq(store.x[s], store.y[s], bx, bY);
+            if (dist < bestDist || (dist == bestDist && store.ids[s] < store.ids[best])) {
+                bestDist = dist;
+                best = s;
+            }
+        }
+        return best < 0 ? null : store.view(best);
+    }
+
+    // A tick runs in phases so the heavy work can be spread across cores while the outcome
+    // depends only on the seed: every character draws from its own random stream, phases
+    // are separated by joins, and hits land on each target in attacker-id order.
+    public void tick() {
+        tickCount++;
+        events.tick(tickCount);
+        int n = snapshotLiving();
+
+        // Phase 1 (parallel): each character rolls a small random step from its own stream
+        forEachIndex(n, rollStep);
+        for (int i = 0; i < n; i++) order[i].move(stepX[i], stepY[i]); // grid writes stay single-threaded
+
+        // Phase 2 (parallel): pick a target against the settled positions and roll the damage
+        forEachIndex(n, chooseAction);
+        for (int i = 0; i < n; i++) {
+            if (!approaching[i]) continue;
+            Character c = order[i];
+            c.move(stepX[i], stepY[i]);
+            events.approaching(c, order[targetOf[i]]);
+            targetOf[i] = -1;
+        }
+
+        // Phase 3 (parallel by target): hits never conflict because each target is owned by one task
+        groupHitsByTarget(n);
+        forEachIndex(n, resolveHits);
+
+        Arrays.fill(order, 0, n, null);
+        removeDead();
+    }
+
+    private int snapshotLiving() {
+        int n = store.size();
+        if (order.length < n) {
+            order = new Character[n];
+            stepX = new int[n];
+            stepY = new int[n];
+            targetOf = new int[n];
+            damageOf = new int[n];
+            approaching = new boolean[n];
+            hitStart = new int[n + 1];
+            hitCursor = new int[n];
+            hitAttackers = new int[n];
+        }
+        int live = 0;
+        for (int s = 0; s < n; s++) { // spawn order, which the seed history fully determines
+            if (store.health[s] <= 0) continue;
+            Character c = store.view(s);
+            c.tickIndex = live;
+            order[live++] = c;
+        }
+        return live;
+    }
+
+    private void rollStep(int i) {
+        GameRandom rnd = order[i].random();
+        stepX[i] = rnd.nextInt(3) - 1; // -1,0,1
+        stepY[i] = rnd.nextInt(3) - 1;
+    }
+
+    private void chooseAction(int i) {
+        Character c = order[i];
+        targetOf[i] = -1;
+        approaching[i] = false;
+        Character enemy = findNearestEnemy(c);
+        if (enemy == null) {
+            events.idle(c);
+            return;
+        }
+        // if within attack range (distance <=2) attack; else move one step towards the enemy
+        if (SpatialGrid.distSq(c.getX(), c.getY(), enemy.getX(), enemy.getY()) <= ATTACK_RANGE_SQ) {
+            int damage = c.prepareAttack(enemy);
+            if (damage >= 0) {
+                targetOf[i] = enemy.tickIndex;
+                damageOf[i] = damage;
+            }
+        } else {
+            stepX[i] = Integer.compare(enemy.getX(), c.getX());
+            stepY[i] = Integer.compare(enemy.getY(), c.getY());
+            targetOf[i] = enemy.tickIndex;
+            approaching[i] = true;
+        }
+    }
+
+    // counting sort of attackers by target; scanning attackers in index order keeps each
+    // target's hits in spawn order
+    private void groupHitsByTarget(int n) {
+        Arrays.fill(hitStart, 0, n + 1, 0);
+        for (int i = 0; i < n; i++) {
+            if (targetOf[i] >= 0) hitStart[targetOf[i] + 1]++;
+        }
+        for (int t = 0; t < n; t++) hitStart[t + 1] += hitStart[t];
+        System.arraycopy(hitStart, 0, hitCursor, 0, n);
+        for (int i = 0; i < n; i++) {
+            int t = targetOf[i];
+            if (t >= 0) hitAttackers[hitCursor[t]++] = i;
+        }
+    }
+
+    private void resolveHits(int t) {
+        Character target = order[t];
+        for (int k = hitStart[t]; k < hitStart[t + 1]; k++) {
+            if (!target.isAlive()) {
+                events.rejected(target, "is already down.");
+                continue;
+            }
+            target.defend(damageOf[hitAttackers[k]]);
+        }
+    }
+
+    private void forEachIndex(int n, IntConsumer body) {
+        if (n < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+            for (int i = 0; i < n; i++) body.accept(i);
+            return;
+        }
+        int per = (n + chunks.length - 1) / chunks.length;
+        for (int c = 0; c < chunks.length; c++) {
+            PhaseChunk chunk = chunks[c];
+            chunk.reinitialize();
+            chunk.body = body;
+            chunk.from = Math.min(n, c * per);
+            chunk.to = Math.min(n, chunk.from + per);
+        }
+        phase.reinitialize();
+        pool.invoke(phase);
+    }
+
+    // fingerprint of every character's mutable state in spawn order, including a mage's mana and
+    // the inventory (String hashes are fixed by the spec, so this is stable across JVMs); ids
+    // themselves are left out because they come from a JVM-wide counter. Equal seeds must give
+    // equal hashes
+    public long stateHash() {
+        long h = 1125899906842597L;
+        for (int s = 0; s < store.size(); s++) {
+            Character c = store.views[s];
+            h = 31 * h + store.health[s];
+            h = 31 * h + store.x[s];
+            h = 31 * h + store.y[s];
+            h = 31 * h + store.tempDefenseBonus[s];
+            if (c instanceof Mage) h = 31 * h + ((Mage) c).getMana();
+            h = 31 * h + c.getInventory().hashCode();
+        }
+        return h;
+    }
+
+    public int getTickCount() { return tickCount; }
+    public long getSeed() { return seed; }
+    CharacterStore store() { return store; }
+    public int population() { return store.size(); }
+
+    public void showStatus() {
+        events.flush(); // let the event writer catch up so the status lands after this tick's lines
+        System.out.println("\n--- World Status ---");
+        for (int s = 0; s < store.size(); s++) {
+            System.out.println(store.view(s));
+        }
+        System.out.println("--------------------");
+    }
+}
+
+// ---------------------------- STATE REPLICATION (snapshot + delta encoding) ----------------------------
+// Server side of world replication for one client. Each encode() captures the store into a
+// frame, diffs it against the last frame the client acknowledged, and writes only what
+// changed into a reusable direct buffer:
+//
+//   int tick | int baselineTick (-1 = full snapshot) | int entityCount
+//   entityCount x { varint id | byte mask | zigzag deltas for masked fields | inventory }
+//   varint removedCount | removedCount x varint id
+//
+// Health and position go out as zigzag varint deltas against the baseline (a one-tile step
+// is a single byte); the inventory goes out whole, but only when its version changed.
+class SnapshotEncoder {
+    static final int NEW = 1, HEALTH = 2, X = 4, Y = 8, INVENTORY = 16;
+
+    private final Frame[] history; // recent frames by tick % length, kept as delta baselines
+    private Frame scratch = new Frame();
+    private ByteBuffer out = ByteBuffer.allocateDirect(64 * 1024);
+    private int ackedTick = -1;
+
+    public SnapshotEncoder(int historyTicks) {
+        history = new Frame[historyTicks];
+        for (int i = 0; i < historyTicks; i++) history[i] = new Frame();
+    }
+
+    // the client has applied 'tick'; later encodes may use it as their baseline
+    public void acknowledge(int tick) {
+        if (tick > ackedTick && frameFor(tick) != null) ackedTick = tick;
+    }
+
+    // returns the encoder's buffer, flipped and ready to send; valid until the next encode()
+    public ByteBuffer encode(GameWorld world) {
+        int tick = world.getTickCount();
+        Frame current = scratch;
+        current.capture(world.store(), tick);
+        // the decoder forgets baselines older than its history, even when the ticks between were
+        // never sent, so an ack that old can't be used even if its frame is still in our slot
+        Frame base = tick - ackedTick < history.length ? frameFor(ackedTick) : null;
+
+        out.clear();
+        out.putInt(tick).putInt(base == null ? -1 : base.tick);
+        int countAt = out.position();
+        out.putInt(0);
+        int written = 0;
+        for (int i = 0; i < current.size; i++) {
+            if (writeEntity(current, i, base)) written++;
+        }
+        out.putInt(countAt, written);
+
+        if (base == null) {
+            writeVarint(0);
+        } else {
+            int removed = 0;
+            for (int j = 0; j < base.size; j++) {
+                if (current.index.get(base.ids[j]) < 0) removed++;
+            }
+            writeVarint(removed);
+            for (int j = 0; j < base.size; j++) {
+                if (current.index.get(base.ids[j]) < 0) writeVarint(base.ids[j]);
+            }
+        }
+
+        // keep this frame as a future baseline; the frame it displaces becomes the next scratch
+        int slot = Math.floorMod(tick, history.length);
+        scratch = history[slot];
+        history[slot] = current;
+        out.flip();
+        return out;
+    }
+
+    private boolean writeEntity(Frame cur, int i, Frame base) {
+        int b = base == null ? -1 : base.index.get(cur.ids[i]);
+        int baseHealth = b < 0 ? 0 : base.health[b];
+        int baseX = b < 0 ? 0 : base.x[b];
+        int baseY = b < 0 ? 0 : base.y[b];
+        int mask = b < 0 ? NEW : 0;
+        if (cur.health[i] != baseHealth) mask |= HEALTH;
+        if (cur.x[i] != baseX) mask |= X;
+        if (cur.y[i] != baseY) mask |= Y;
+        if (b < 0 ? !cur.views[i].getInventory().isEmpty() : cur.inventoryVersion[i] != base.inventoryVersion[b]) {
+            mask |= INVENTORY;
+        }
+        if (mask == 0) return false;
+
+        ensureRoom(32);
+        writeVarint(cur.ids[i]);
+        out.put((byte) mask);
+        if ((mask & HEALTH) != 0) writeVarint(zigzag(cur.health[i] - baseHealth));
+        if ((mask & X) != 0) writeVarint(zigzag(cur.x[i] - baseX));
+        if ((mask & Y) != 0) writeVarint(zigzag(cur.y[i] - baseY));
+        if ((mask & INVENTORY) != 0) writeInventory(cur.views[i].getInventory());
+        return true;
+    }
+
+    private void writeInventory(List<String> items) {
+        writeVarint(items.size());
+        for (int k = 0; k < items.size(); k++) {
+            String item = items.get(k);
+            ensureRoom(5 + item.length() * 2);
+            writeVarint(item.length());
+            for (int c = 0; c < item.length(); c++) out.putChar(item.charAt(c)); // UTF-16 units
+        }
+    }
+
+    private Frame frameFor(int tick) {
+        if (tick < 0) return null;
+        Frame f = history[Math.floorMod(tick, history.length)];
+        return f.tick == tick ? f : null;
+    }
+
+    private void ensureRoom(int bytes) {
+        if (out.remaining() >= bytes + 5) return;
+        ByteBuffer bigger = ByteBuffer.allocateDirect(Math.max(out.capacity() * 2, out.position() + bytes + 5));
+        out.flip();
+        bigger.put(out);
+        out = bigger;
+    }
+
+    private void writeVarint(int v) {
+        ensureRoom(5);
+        while ((v & ~0x7F) != 0) {
+            out.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) v);
+    }
+
+    static int zigzag(int v) { return (v << 1) ^ (v >> 31); }
+
+    // one tick's replicated columns, copied out of the store so later ticks can diff against it
+    private static final class Frame {
+        int tick = -1, size;
+        int[] ids = new int[0], health = new int[0], x = new int[0], y = new int[0], inventoryVersion = new int[0];
+        Character[] views = new Character[0];
+        final IdIndex index = new IdIndex();
+
+        void capture(CharacterStore store, int tick) {
+            int n = store.size();
+            if (ids.length < n) {
+                int cap = Math.max(16, n + (n >> 1));
+                ids = new int[cap];
+                health = new int[cap];
+                x = new int[cap];
+                y = new int[cap];
+                inventoryVersion = new int[cap];
+                views = new Character[cap];
+            }
+            System.arraycopy(store.ids, 0, ids, 0, n);
+            System.arraycopy(store.health, 0, health, 0, n);
+            System.arraycopy(store.x, 0, x, 0, n);
+            System.arraycopy(store.y, 0, y, 0, n);
+            System.arraycopy(store.inventoryVersion, 0, inventoryVersion, 0, n);
+            System.arraycopy(store.views, 0, views, 0, n);
+            if (size > n) Arrays.fill(views, n, size, null); // drop references to removed characters
+            index.clear();
+            for (int i = 0; i < n; i++) index.put(ids[i], i);
+            this.size = n;
+            this.tick = tick;
+        }
+    }
+}
+
+// open-addressing int -> int map (id -> row) that is cleared and refilled without allocating
+class IdIndex {
+    private int[] keys = new int[32];
+    private int[] values = new int[32];
+    private boolean[] used = new boolean[32];
+    private int size;
+
+    public void clear() {
+        if (size > 0) Arrays.fill(used, false);
+        size = 0;
+    }
+
+    public void put(int key, int value) {
+        if ((size + 1) * 2 > keys.length) rehash(keys.length * 2);
+        int mask = keys.length - 1;
+        int i = (key * 0x9E3779B9) >>> 1 & mask;
+        while (used[i] && keys[i] != key) i = (i + 1) & mask;
+        if (!used[i]) size++;
+        used[i] = true;
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    // value for 'key', or -1
+    public int get(int key) {
+        int mask = keys.length - 1;
+        for (int i = (key * 0x9E3779B9) >>> 1 & mask; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+        }
+        return -1;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys, oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
+
+// Client side: rebuilds the world state from full or delta snapshots. It keeps the states of
+// recent ticks so a delta can be applied to whichever baseline the server chose.
+class SnapshotDecoder {
+    static final class EntityState {
+        final int id;
+        int health, x, y;
+        List<String> inventory = Collections.emptyList();
+
+        EntityState(int id) { this.id = id; }
+
+        EntityState copy() {
+            EntityState e = new EntityState(id);
+            e.health = health;
+            e.x = x;
+            e.y = y;
+            e.inventory = inventory;
+            return e;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + id + "] HP:" + health + " Pos:(" + x + "," + y + ") Inv:" + inventory;
+        }
+    }
+
+    private final int historyTicks;
+    private final Map<Integer, Map<Integer, EntityState>> history = new HashMap<>();
+    private int lastTick = -1;
+
+    public SnapshotDecoder(int historyTicks) { this.historyTicks = historyTicks; }
+
+    public int lastDecodedTick() { return lastTick; }
+
+    // applies one encoded snapshot and returns the full state (id -> entity) for its tick
+    public Map<Integer, EntityState> decode(ByteBuffer in) {
+        int tick = in.getInt();
+        int baselineTick = in.getInt();
+        Map<Integer, EntityState> state = new LinkedHashMap<>();
+        if (baselineTick >= 0) {
+            Map<Integer, EntityState> base = history.get(baselineTick);
+            if (base == null) throw new IllegalStateException("unknown baseline tick " + baselineTick);
+            for (EntityState e : base.values()) state.put(e.id, e.copy());
+        }
+
+        int count = in.getInt();
+        for (int n = 0; n < count; n++) {
+            int id = readVarint(in);
+            int mask = in.get();
+            EntityState e = state.get(id);
+            if (e == null || (mask & SnapshotEncoder.NEW) != 0) {
+                e = new EntityState(id);
+                state.put(id, e);
+            }
+            if ((mask & SnapshotEncoder.HEALTH) != 0) e.health += unzigzag(readVarint(in));
+            if ((mask & SnapshotEncoder.X) != 0) e.x += unzigzag(readVarint(in));
+            if ((mask & SnapshotEncoder.Y) != 0) e.y += unzigzag(readVarint(in));
+            if ((mask & SnapshotEncoder.INVENTORY) != 0) e.inventory = readInventory(in);
+        }
+        int removed = readVarint(in);
+        for (int n = 0; n < removed; n++) state.remove(readVarint(in));
+
+        history.put(tick, state);
+        history.keySet().removeIf(t -> t <= tick - historyTicks);
+        lastTick = tick;
+        return state;
+    }
+
+    private static List<String> readInventory(ByteBuffer in) {
+        int items = readVarint(in);
+        List<String> inventory = new ArrayList<>(items);
+        for (int k = 0; k < items; k++) {
+            char[] chars = new char[readVarint(in)];
+            for (int c = 0; c < chars.length; c++) chars[c] = in.getChar();
+            inventory.add(new String(chars));
+        }
+        return Collections.unmodifiableList(inventory);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+    }
+
+    private static int unzigzag(int v) { return (v >>> 1) ^ -(v & 1); }
+}
+
+// ---------------------------- RECORD / REPLAY (deterministic input journal) ----------------------------
+// Everything a session depends on is the world seed plus the inputs fed to it between ticks,
+// so recording those is enough to reproduce a run exactly. The journal is a compact binary
+// stream of one-byte opcodes:
+//
+//   int magic | byte version | long seed | int hashInterval
+//   SPAWN    byte kind | utf name | int x | int y
+//   PICK_UP  varint character | utf item
+//   USE_ITEM varint character | utf item
+//   STRATEGY varint character | byte strategy
+//   TICK
+//   HASH     varint tick | long stateHash        (every hashInterval ticks)
+//   END
+//
+// Characters are referred to by spawn order, not id, because ids come from a JVM-wide counter.
+final class Journal {
+    static final int MAGIC = 0x47524A31; // "GRJ1"
+    static final byte VERSION = 2; // 2: HASH also covers mana and inventory
+    static final byte END = 0, SPAWN = 1, PICK_UP = 2, USE_ITEM = 3, STRATEGY = 4, TICK = 5, HASH = 6;
+    static final byte WARRIOR = 0, MAGE = 1, ARCHER = 2;
+    static final byte AGGRESSIVE = 0, DEFENSIVE = 1;
+
+    private Journal() {}
+
+    static byte kindOf(Character c) {
+        if (c instanceof Warrior) return WARRIOR;
+        if (c instanceof Mage) return MAGE;
+        if (c instanceof Archer) return ARCHER;
+        throw new IllegalArgumentException("cannot record character type " + c.getClass().getSimpleName());
+    }
+
+    static Character create(byte kind, String name, int x, int y) {
+        switch (kind) {
+            case WARRIOR: return new Warrior(name, x, y);
+            case MAGE: return new Mage(name, x, y);
+            case ARCHER: return new Archer(name, x, y);
+            default: throw new IllegalStateException("unknown character kind " + kind);
+        }
+    }
+
+    static byte strategyOf(CombatStrategy s) {
+        if (s instanceof AggressiveStrategy) return AGGRESSIVE;
+        if (s instanceof DefensiveStrategy) return DEFENSIVE;
+        throw new IllegalArgumentException("cannot record strategy " + s.getClass().getSimpleName());
+    }
+
+    static CombatStrategy strategy(byte code) {
+        switch (code) {
+            case AGGRESSIVE: return new AggressiveStrategy();
+            case DEFENSIVE: return new DefensiveStrategy();
+            default: throw new IllegalStateException("unknown strategy " + code);
+        }
+    }
+
+    static void writeVarint(DataOutputStream out, int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    static int readVarint(DataInputStream in) throws IOException {
+        int v = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (b & 0x7F) << shift;
+            if (b < 0x80) return v;
+        }
+    }
+}
+
+// Drives a fresh world and journals every input on the way through. Inputs that bypass the
+// recorder (calling c.useItem directly, say) are not captured and will make replays diverge.
+class SessionRecorder implements AutoCloseable {
+    private final GameWorld world;
+    private final DataOutputStream out;
+    private final int hashInterval;
+    private final Map<Character, Integer> spawnIndex = new IdentityHashMap<>();
+
+    public SessionRecorder(GameWorld world, OutputStream sink, int hashInterval) {
+        if (world.getTickCount() != 0 || world.population() != 0) {
+            throw new IllegalStateException("recording must start from an empty, unticked world");
+        }
+        if (hashInterval <= 0) throw new IllegalArgumentException("hashInterval must be positive");
+        this.world = world;
+        this.out = new DataOutputStream(new BufferedOutputStream(sink, 64 * 1024));
+        this.hashInterval = hashInterval;
+        try {
+            out.writeInt(Journal.MAGIC);
+            out.writeByte(Journal.VERSION);
+            out.writeLong(world.getSeed());
+            out.writeInt(hashInterval);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void spawn(Character c) {
+        byte kind = Journal.kindOf(c);
+        try {
+            out.writeByte(Journal.SPAWN);
+            out.writeByte(kind);
+            out.writeUTF(c.getName());
+            out.writeInt(c.getX());
+            out.writeInt(c.getY());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        spawnIndex.put(c, spawnIndex.size());
+        world.addCharacter(c);
+    }
+
+    public void pickUp(Character c, String item) {
+        writeItemCommand(Journal.PICK_UP, c, item);
+        c.pickUp(item);
+    }
+
+    public void useItem(Character c, String item) {
+        writeItemCommand(Journal.USE_ITEM, c, item);
+        c.useItem(item);
+    }
+
+    public void setCombatStrategy(Character c, CombatStrategy s) {
+        byte code = Journal.strategyOf(s);
+        try {
+            out.writeByte(Journal.STRATEGY);
+            Journal.writeVarint(out, indexOf(c));
+            out.writeByte(code);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        c.setCombatStrategy(s);
+    }
+
+    public void tick() {
+        world.tick();
+        try {
+            out.writeByte(Journal.TICK);
+            int tick = world.getTickCount();
+            if (tick % hashInterval == 0) {
+                out.writeByte(Journal.HASH);
+                Journal.writeVarint(out, tick);
+                out.writeLong(world.stateHash());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.writeByte(Journal.END);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeItemCommand(byte op, Character c, String item) {
+        try {
+            out.writeByte(op);
+            Journal.writeVarint(out, indexOf(c));
+            out.writeUTF(item);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int indexOf(Character c) {
+        Integer index = spawnIndex.get(c);
+        if (index == null) throw new IllegalArgumentException(c.getName() + " was not spawned through this recorder");
+        return index;
+    }
+}
+
+// outcome of a replay; firstMismatchTick is -1 when every recorded hash matched
+class ReplayResult {
+    final int ticks;
+    final int hashChecks;
+    final int firstMismatchTick;
+    final long elapsedNanos;
+
+    ReplayResult(int ticks, int hashChecks, int firstMismatchTick, long elapsedNanos) {
+        this.ticks = ticks;
+        this.hashChecks = hashChecks;
+        this.firstMismatchTick = firstMismatchTick;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public boolean matched() { return firstMismatchTick < 0; }
+
+    public double ticksPerSecond() { return ticks * 1e9 / Math.max(1, elapsedNanos); }
+
+    @Override
+    public String toString() {
+        return String.format("ticks: %,d | hash checks: %d | %s | %.0f ticks/s", ticks, hashChecks,
+                matched() ? "all matched" : "diverged at tick " + firstMismatchTick, ticksPerSecond());
+    }
+}
+
+// Re-runs a journal as fast as the machine allows: no scheduler, no sleeps and the world's
+// default no-op event sink, so it doubles as a headless load driver for recorded sessions.
+class SessionReplayer {
+    private final ForkJoinPool pool;
+
+    public SessionReplayer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SessionReplayer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public ReplayResult replay(InputStream source) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(source, 64 * 1024));
+        if (in.readInt() != Journal.MAGIC) throw new IOException("not a game journal");
+        byte version = in.readByte();
+        if (version != Journal.VERSION) throw new IOException("unsupported journal version " + version);
+        GameWorld world = new GameWorld(in.readLong(), 4, pool);
+        in.readInt(); // hash interval; the HASH records themselves say when to check
+
+        List<Character> spawned = new ArrayList<>();
+        int checks = 0, firstMismatch = -1;
+        long start = System.nanoTime();
+        while (true) {
+            byte op = in.readByte();
+            switch (op) {
+                case Journal.SPAWN: {
+                    byte kind = in.readByte();
+                    String name = in.readUTF();
+                    Character c = Journal.create(kind, name, in.readInt(), in.readInt());
+                    spawned.add(c);
+                    world.addCharacter(c);
+                    break;
+                }
+                case Journal.PICK_UP:
+                    spawned.get(Journal.readVarint(in)).pickUp(in.readUTF());
+                    break;
+                case Journal.USE_ITEM:
+                    spawned.get(Journal.readVarint(in)).useItem(in.readUTF());
+                    break;
+                case Journal.STRATEGY: {
+                    Character c = spawned.get(Journal.readVarint(in));
+                    c.setCombatStrategy(Journal.strategy(in.readByte()));
+                    break;
+                }
+                case Journal.TICK:
+                    world.tick();
+                    break;
+                case Journal.HASH: {
+                    int tick = Journal.readVarint(in);
+                    long expected = in.readLong();
+                    checks++;
+                    if (firstMismatch < 0 && (tick != world.getTickCount() || expected != world.stateHash())) {
+                        firstMismatch = tick;
+                    }
+                    break;
+                }
+                case Journal.END:
+                    return new ReplayResult(world.getTickCount(), checks, firstMismatch, System.nanoTime() - start);
+                default:
+                    throw new IOException("corrupt journal: opcode " + op);
+            }
+        }
+    }
+}
+
+// ---------------------------- TICK SCHEDULER (fixed timestep) ----------------------------
+// what to do when a tick finishes after the next one was due
+enum OverrunPolicy {
+    CATCH_UP, // run the missed ticks back to back (up to a cap) so game time keeps pace
+    SKIP      // drop the missed ticks and realign to the next deadline
+}
+
+// Log-linear latency histogram: 32 sub-buckets per power of two gives ~3% precision from
+// nanoseconds to centuries in a fixed 15 KB array, so recording never allocates.
+class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+
+    private final long[] counts = new long[(64 - SUB_BITS) * SUB];
+    private long total, sum, max;
+
+    public synchronized void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts[indexOf(v)]++;
+        total++;
+        sum += v;
+        max = Math.max(max, v);
+    }
+
+    public synchronized long count() { return total; }
+    public synchronized long max() { return max; }
+    public synchronized long mean() { return total == 0 ? 0 : sum / total; }
+
+    // upper bound of the bucket holding the p-th percentile (never above the true max)
+    public synchronized long percentile(double p) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return i + 1 == counts.length ? max : Math.min(max, lowestValue(i + 1) - 1);
+        }
+        return max;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        total = sum = max = 0;
+    }
+
+    static int indexOf(long v) {
+        if (v < SUB) return (int) v;
+        int e = 63 - Long.numberOfLeadingZeros(v);
+        return (e - SUB_BITS + 1) * SUB + (int) ((v >>> (e - SUB_BITS)) & (SUB - 1));
+    }
+
+    static long lowestValue(int index) {
+        if (index < SUB) return index;
+        int e = index / SUB + SUB_BITS - 1;
+        return (long) (SUB + index % SUB) << (e - SUB_BITS);
+    }
+}
+
+// point-in-time view of a scheduler's counters; all latencies in nanoseconds
+class TickStats {
+    private final long ticks, overruns, skippedTicks, p50, p99, max, mean;
+
+    public TickStats(long ticks, long overruns, long skippedTicks, LatencyHistogram latency) {
+        this.ticks = ticks;
+        this.overruns = overruns;
+        this.skippedTicks = skippedTicks;
+        this.p50 = latency.percentile(50);
+        this.p99 = latency.percentile(99);
+        this.max = latency.max();
+        this.mean = latency.mean();
+    }
+
+    public long getTicks() { return ticks; }
+    public long getOverruns() { return overruns; }
+    public long getSkippedTicks() { return skippedTicks; }
+    public long getP50Nanos() { return p50; }
+    public long getP99Nanos() { return p99; }
+    public long getMaxNanos() { return max; }
+    public long getMeanNanos() { return mean; }
+
+    @Override
+    public String toString() {
+        return String.format("ticks=%d overruns=%d skipped=%d | tick latency p50=%.3fms p99=%.3fms max=%.3fms mean=%.3fms",
+                ticks, overruns, skippedTicks, p50 / 1e6, p99 / 1e6, max / 1e6, mean / 1e6);
+    }
+}
+
+// Drives GameWorld.tick on a fixed timestep measured against absolute deadlines, so the rate
+// doesn't drift with tick cost the way "tick(); sleep(period)" does. Every tick's latency goes
+// into a histogram, and ticks that finish past their slot are counted as overruns.
+class TickScheduler {
+    private final GameWorld world;
+    private final long periodNanos;
+    private final OverrunPolicy policy;
+    private final int maxCatchUpTicks;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private volatile boolean stopRequested;
+    private volatile long ticks, overruns, skippedTicks;
+
+    public TickScheduler(GameWorld world, long periodNanos, OverrunPolicy policy) {
+        this(world, periodNanos, policy, 5);
+    }
+
+    public TickScheduler(GameWorld world, long periodNanos, OverrunPolicy policy, int maxCatchUpTicks) {
+        if (periodNanos <= 0) throw new IllegalArgumentException("period must be positive");
+        this.world = world;
+        this.periodNanos = periodNanos;
+        this.policy = policy;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+    }
+
+    public static TickScheduler atHz(GameWorld world, int ticksPerSecond, OverrunPolicy policy) {
+        return new TickScheduler(world, 1_000_000_000L / ticksPerSecond, policy);
+    }
+
+    // runs 'count' ticks on the calling thread (or until stop()), calling 'afterTick' after each
+    public void run(int count, Runnable afterTick) {
+        stopRequested = false;
+        long deadline = System.nanoTime();
+        for (int i = 0; i < count && !stopRequested; i++) {
+            long start = System.nanoTime();
+            world.tick();
+            latency.record(System.nanoTime() - start);
+            if (afterTick != null) afterTick.run();
+            ticks++;
+
+            deadline += periodNanos;
+            long now = System.nanoTime();
+            if (now <= deadline) {
+                while ((now = System.nanoTime()) < deadline && !stopRequested) LockSupport.parkNanos(deadline - now);
+                continue;
+            }
+
+            overruns++;
+            long behind = (now - deadline) / periodNanos; // whole ticks already missed
+            if (policy == OverrunPolicy.SKIP || behind > maxCatchUpTicks) {
+                // realign on the next future deadline instead of bursting through the backlog
+                skippedTicks += behind + 1;
+                deadline += (behind + 1) * periodNanos;
+                while ((now = System.nanoTime()) < deadline && !stopRequested) LockSupport.parkNanos(deadline - now);
+            }
+            // CATCH_UP within the cap: start the next tick immediately
+        }
+    }
+
+    public void stop() { stopRequested = true; }
+
+    public TickStats stats() {
+        return new TickStats(ticks, overruns, skippedTicks, latency);
+    }
+
+    public LatencyHistogram latencyHistogram() { return latency; }
+
+    public long getPeriodNanos() { return periodNanos; }
+}
+
+// ---------------------------- BENCHMARK: grid vs linear scan ----------------------------
+// Run with: java SpatialGridBenchmark
+// Keeps density constant (about one character per 16 tiles) while the population grows,
+// and times a fixed sample of nearest-enemy queries with both implementations.
+class SpatialGridBenchmark {
+    public static void main(String[] args) {
+
+        int[] sizes = {1_000, 10_000, 100_000};
+        int queries = 2_000;
+        for (int n : sizes) {
+            Random rnd = new Random(42);
+            int side = (int) Math.sqrt(n * 16.0);
+            GameWorld world = new GameWorld();
+            Character[] all = new Character[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = new Warrior("W" + i, rnd.nextInt(side), rnd.nextInt(side));
+                world.addCharacter(all[i]);
+            }
+
+            // warm both paths up before timing them
+            for (int i = 0; i < queries; i++) {
+                world.findNearestEnemy(all[i % n]);
+                world.findNearestEnemyByScan(all[i % n]);
+            }
+
+            long mismatches = 0;
+            long t0 = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                if (world.findNearestEnemy(all[(i * 7919) % n]) == null) mismatches++;
+            }
+            long gridNs = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                if (world.findNearestEnemyByScan(all[(i * 7919) % n]) == null) mismatches++;
+            }
+            long scanNs = System.nanoTime() - t0;
+
+            for (int i = 0; i < queries; i++) {
+                Character by = all[(i * 7919) % n];
+                if (world.findNearestEnemy(by) != world.findNearestEnemyByScan(by)) mismatches++;
+            }
+
+            System.out.printf("n=%,7d | grid: %,9d ns/query | scan: %,11d ns/query | speedup x%,.0f | mismatches: %d%n",
+                    n, gridNs / queries, scanNs / queries, (double) scanNs / Math.max(1, gridNs), mismatches);
+        }
+    }
+}
+
+// ---------------------------- BENCHMARK: parallel tick scaling ----------------------------
+// Run with: java ParallelTickBenchmark
+// Runs the same seeded world on pools of 1..N threads; the state hash must match for every
+// pool size, and ticks/sec shows how the phases scale with cores.
+class ParallelTickBenchmark {
+    public static void main(String[] args) {
+
+        int n = 20_000, ticks = 30;
+        long seed = 7L;
+        int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors()); // >= 4 so determinism is always exercised
+        Long expected = null;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            GameWorld world = new GameWorld(seed, 4, pool);
+            Random layout = new Random(seed);
+            int side = (int) Math.sqrt(n * 8.0);
+            for (int i = 0; i < n; i++) {
+                Character c;
+                switch (i % 3) {
+                    case 0: c = new Warrior("W" + i, layout.nextInt(side), layout.nextInt(side)); break;
+                    case 1: c = new Mage("M" + i, layout.nextInt(side), layout.nextInt(side)); break;
+                    default: c = new Archer("A" + i, layout.nextInt(side), layout.nextInt(side));
+                }
+                world.addCharacter(c);
+            }
+            world.tick(); // warm-up
+
+            long t0 = System.nanoTime();
+            for (int t = 1; t < ticks; t++) world.tick();
+            long elapsed = System.nanoTime() - t0;
+            pool.shutdown();
+
+            long hash = world.stateHash();
+            if (expected == null) expected = hash;
+            System.out.printf("threads=%2d | %,8.1f ticks/sec | survivors=%,d | hash=%016x %s%n",
+                    threads, (ticks - 1) * 1e9 / elapsed, world.population(), hash,
+                    hash == expected ? "(deterministic)" : "(MISMATCH)");
+        }
+    }
+}
+
+// ---------------------------- BENCHMARK SUITE: hot paths by size and density ----------------------------
+// Run with: java GameBenchmarks [name-filter]
+// A small JMH-style harness, since there is no build to pull JMH into. Each case gets a fresh,
+// untimed setup per iteration, then warm-up iterations, then measured ones. It reports ops/sec
+// and bytes allocated per op, summed over every live thread so the tick's pool workers count.
+// stdout is silenced while cases run; results go to the original stream.
+interface BenchmarkCase {
+    // untimed: build the state for one iteration
+    void setup(int size, int tilesPerCharacter);
+
+    // timed: run one iteration and return how many operations it performed
+    long run();
+}
+
+class GameBenchmarks {
+    private static final int[] SIZES = {1_000, 10_000, 50_000};
+    private static final int[] TILES_PER_CHARACTER = {64, 16, 4}; // sparse .. crowded
+    private static final int WARMUP = 3, MEASURED = 5;
+    static volatile long blackhole; // results land here so the JIT cannot drop the work
+
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        Map<String, BenchmarkCase> cases = new LinkedHashMap<>();
+        cases.put("tick", new TickCase());
+        cases.put("findNearestEnemy", new NearestCase());
+        cases.put("attack+defend", new AttackDefendCase());
+        cases.put("removeDead", new RemoveDeadCase());
+
+        PrintStream report = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long probe = allocatedBytes(threads);
+        long probeCost = allocatedBytes(threads) - probe; // what sampling the counters allocates itself
+
+        report.printf("%-17s %8s %6s %16s %18s %12s%n", "benchmark", "size", "tiles", "ops/sec", "(min .. max)", "B/op");
+        try {
+            for (Map.Entry<String, BenchmarkCase> e : cases.entrySet()) {
+                if (!e.getKey().contains(filter)) continue;
+                for (int size : SIZES) {
+                    for (int tiles : TILES_PER_CHARACTER) {
+                        BenchmarkCase bench = e.getValue();
+                        for (int i = 0; i < WARMUP; i++) {
+                            bench.setup(size, tiles);
+                            bench.run();
+                        }
+                        double min = Double.MAX_VALUE, max = 0, sum = 0;
+                        long ops = 0, bytes = 0;
+                        for (int i = 0; i < MEASURED; i++) {
+                            bench.setup(size, tiles);
+                            long allocStart = allocatedBytes(threads);
+                            long t0 = System.nanoTime();
+                            long n = bench.run();
+                            long elapsed = System.nanoTime() - t0;
+                            bytes += Math.max(0, allocatedBytes(threads) - allocStart - probeCost);
+                            ops += n;
+                            double rate = n * 1e9 / Math.max(1, elapsed);
+                            min = Math.min(min, rate);
+                            max = Math.max(max, rate);
+                            sum += rate;
+                        }
+                        report.printf("%-17s %,8d %6d %,16.0f %18s %,12.1f%n", e.getKey(), size, tiles,
+                                sum / MEASURED, String.format("(%,.0f .. %,.0f)", min, max), (double) bytes / ops);
+                    }
+                }
+            }
+        } finally {
+            System.setOut(report);
+        }
+    }
+
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threads) {
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) total += bytes; // -1 for threads that ended between the two calls
+        }
+        return total;
+    }
+
+    // a seeded mixed-class world of 'size' characters spread over size * tiles tiles
+    static Character[] populate(GameWorld world, int size, int tilesPerCharacter) {
+        Random layout = new Random(size * 31L + tilesPerCharacter);
+        int side = (int) Math.sqrt((double) size * tilesPerCharacter);
+        Character[] all = new Character[size];
+        for (int i = 0; i < size; i++) {
+            int x = layout.nextInt(side), y = layout.nextInt(side);
+            all[i] = i % 3 == 0 ? new Warrior("W" + i, x, y)
+                    : i % 3 == 1 ? new Mage("M" + i, x, y) : new Archer("A" + i, x, y);
+            world.addCharacter(all[i]);
+        }
+        return all;
+    }
+
+    // full ticks: movement, targeting, combat and cleanup; crowded worlds thin out as it runs
+    private static final class TickCase implements BenchmarkCase {
+        private GameWorld world;
+
+        @Override
+        public void setup(int size, int tilesPerCharacter) {
+            world = new GameWorld(size);
+            populate(world, size, tilesPerCharacter);
+            world.tick(); // sizes the per-tick scratch arrays outside the timed region
+        }
+
+        @Override
+        public long run() {
+            for (int t = 0; t < 10; t++) world.tick();
+            blackhole += world.stateHash();
+            return 10;
+        }
+    }
+
+    private static final class NearestCase implements BenchmarkCase {
+        private GameWorld world;
+        private Character[] all;
+
+        @Override
+        public void setup(int size, int tilesPerCharacter) {
+            world = new GameWorld(size);
+            all = populate(world, size, tilesPerCharacter);
+        }
+
+        @Override
+        public long run() {
+            int queries = 20_000;
+            long acc = 0;
+            for (int i = 0; i < queries; i++) {
+                Character nearest = world.findNearestEnemy(all[(int) ((i * 7919L) % all.length)]);
+                if (nearest != null) acc += nearest.getId();
+            }
+            blackhole += acc;
+            return queries;
+        }
+    }
+
+    // every character hits the next one once, so nobody dies mid-iteration
+    private static final class AttackDefendCase implements BenchmarkCase {
+        private Character[] all;
+
+        @Override
+        public void setup(int size, int tilesPerCharacter) {
+            all = populate(new GameWorld(size), size, tilesPerCharacter);
+        }
+
+        @Override
+        public long run() {
+            for (int i = 0; i < all.length; i++) all[i].attack(all[(i + 1) % all.length]);
+            blackhole += all[0].getHealth();
+            return all.length;
+        }
+    }
+
+    // one compaction pass with a quarter of the population dead
+    private static final class RemoveDeadCase implements BenchmarkCase {
+        private GameWorld world;
+
+        @Override
+        public void setup(int size, int tilesPerCharacter) {
+            world = new GameWorld(size);
+            Character[] all = populate(world, size, tilesPerCharacter);
+            for (int i = 0; i < all.length; i += 4) all[i].defend(10_000);
+        }
+
+        @Override
+        public long run() {
+            world.removeDead();
+            blackhole += world.population();
+            return 1;
+        }
+    }
+}
+
+// ---------------------------- ALLOCATION CHECK: steady-state tick ----------------------------
+// Run with: java AllocationCheck
+// Counts the bytes the ticking thread allocates per tick (HotSpot's per-thread allocation
+// counter) on a serial world with logging off. Ticks where nobody dies must allocate nothing;
+// a death costs one small private store for the removed character's row. Exits non-zero on failure.
+class AllocationCheck {
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long self = Thread.currentThread().getId();
+
+        GameWorld world = new GameWorld(11L, 4, new ForkJoinPool(1));
+        Random layout = new Random(11L);
+        for (int i = 0; i < 5_000; i++) {
+            int x = layout.nextInt(400), y = layout.nextInt(400);
+            world.addCharacter(i % 3 == 0 ? new Warrior("W" + i, x, y)
+                    : i % 3 == 1 ? new Mage("M" + i, x, y) : new Archer("A" + i, x, y));
+        }
+        for (int t = 0; t < 50; t++) world.tick(); // warm up JIT, grid cells and scratch arrays
+
+        int quietTicks = 0, dirtyTicks = 0;
+        long worst = 0;
+        for (int t = 0; t < 500; t++) {
+            int before = world.population();
+            long start = threads.getThreadAllocatedBytes(self);
+            world.tick();
+            long allocated = threads.getThreadAllocatedBytes(self) - start;
+            if (world.population() != before) continue; // deaths detach rows; not steady state
+            quietTicks++;
+            worst = Math.max(worst, allocated);
+            if (allocated > 0) dirtyTicks++;
+        }
+        System.out.printf("steady-state ticks: %d | allocating ticks: %d | worst: %d bytes%n",
+                quietTicks, dirtyTicks, worst);
+        if (quietTicks == 0 || dirtyTicks > 0) System.exit(1);
+    }
+}
+
+// ---------------------------- REPLICATION CHECK: snapshot round trip ----------------------------
+// Run with: java SnapshotRoundTripCheck
+// Replicates a busy world to a client that acknowledges only some ticks (so deltas are built
+// on older baselines, and on full snapshots once the history runs out) and compares the
+// decoded state with the server after every tick. Exits non-zero on any divergence.
+class SnapshotRoundTripCheck {
+    public static void main(String[] args) {
+        GameWorld world = new GameWorld(5L);
+        Random rnd = new Random(5L);
+        for (int i = 0; i < 2_000; i++) {
+            world.addCharacter(i % 2 == 0 ? new Warrior("W" + i, rnd.nextInt(150), rnd.nextInt(150))
+                    : new Archer("A" + i, rnd.nextInt(150), rnd.nextInt(150)));
+        }
+        SnapshotEncoder encoder = new SnapshotEncoder(8);
+        SnapshotDecoder decoder = new SnapshotDecoder(8);
+
+        long fullBytes = 0, deltaBytes = 0, deltas = 0, fulls = 0, mismatches = 0;
+        for (int t = 0; t < 60; t++) {
+            world.tick();
+            CharacterStore store = world.store();
+            for (int k = 0; k < 5 && store.size() > 0; k++) { // some inventory churn
+                Character c = store.view(rnd.nextInt(store.size()));
+                if (rnd.nextBoolean()) c.pickUp("Health Potion");
+                else c.useItem("Health Potion");
+            }
+
+            ByteBuffer packet = encoder.encode(world);
+            boolean full = packet.getInt(4) < 0;
+            if (full) { fulls++; fullBytes += packet.remaining(); } else { deltas++; deltaBytes += packet.remaining(); }
+            Map<Integer, SnapshotDecoder.EntityState> view = decoder.decode(packet);
+
+            if (view.size() != store.size()) mismatches++;
+            for (int s = 0; s < store.size(); s++) {
+                SnapshotDecoder.EntityState e = view.get(store.ids[s]);
+                if (e == null || e.health != store.health[s] || e.x != store.x[s] || e.y != store.y[s]
+                        || !e.inventory.equals(store.view(s).getInventory())) mismatches++;
+            }
+            boolean outage = t >= 40 && t < 50; // no acks for longer than the history: forces a full snapshot
+            if (!outage && rnd.nextInt(4) != 0) encoder.acknowledge(decoder.lastDecodedTick()); // ~25% of acks lost
+            if (t == 30) for (int skip = 0; skip < 10; skip++) world.tick(); // client misses 10 ticks
+        }
+        System.out.printf("full snapshots: %d (avg %,d B) | deltas: %d (avg %,d B) | mismatches: %d%n",
+                fulls, fullBytes / Math.max(1, fulls), deltas, deltaBytes / Math.max(1, deltas), mismatches);
+        mismatches += staleBaselineAfterSkippedTicks();
+        if (mismatches > 0) System.exit(1);
+    }
+
+    // ack tick 1, skip 10 ticks unsent, encode 12 (ack lost), encode 13: the old ack is beyond
+    // the decoder's history, so both must go out as full snapshots
+    private static int staleBaselineAfterSkippedTicks() {
+        GameWorld world = new GameWorld(6L);
+        for (int i = 0; i < 50; i++) world.addCharacter(new Warrior("W" + i, i * 3, i * 2));
+        SnapshotEncoder encoder = new SnapshotEncoder(8);
+        SnapshotDecoder decoder = new SnapshotDecoder(8);
+        int problems = 0;
+        world.tick();
+        decoder.decode(encoder.encode(world));
+        encoder.acknowledge(decoder.lastDecodedTick());
+        for (int skip = 0; skip < 10; skip++) world.tick();
+        for (int t = 0; t < 2; t++) {
+            world.tick();
+            try {
+                Map<Integer, SnapshotDecoder.EntityState> view = decoder.decode(encoder.encode(world));
+                if (view.size() != world.store().size()) problems++;
+            } catch (IllegalStateException e) {
+                problems++;
+            }
+        }
+        System.out.println("stale baseline after skipped ticks: " + (problems == 0 ? "ok" : "FAILED"));
+        return problems;
+    }
+}
+
+// ---------------------------- INTEREST CHECK: incremental vs brute force ----------------------------
+// Run with: java InterestCheck
+// Ticks a world with interest management on, then compares every character's incrementally
+// maintained view with a brute-force scan and reports the average fan-out per character.
+class InterestCheck {
+    public static void main(String[] args) {
+        GameWorld world = new GameWorld(9L);
+        long[] transitions = new long[2];
+        int radius = 6;
+        InterestManager interest = world.enableInterestManagement(radius, new InterestListener() {
+            @Override public void onEnter(Character observer, Character subject) { transitions[0]++; }
+            @Override public void onLeave(Character observer, Character subject) { transitions[1]++; }
+        });
+        Random rnd = new Random(9L);
+        List<Character> all = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Character c = new Mage("M" + i, rnd.nextInt(300), rnd.nextInt(300));
+            all.add(c);
+            world.addCharacter(c);
+        }
+
+        long mismatches = 0, fanOut = 0;
+        for (int t = 0; t < 5; t++) world.tick();
+        CharacterStore store = world.store();
+        for (int s = 0; s < store.size(); s++) {
+            Character c = store.view(s);
+            Set<Character> expected = new HashSet<>();
+            for (int o = 0; o < store.size(); o++) {
+                Character other = store.view(o);
+                if (other != c && other.isAlive()
+                        && SpatialGrid.distSq(c.getX(), c.getY(), other.getX(), other.getY()) <= (long) radius * radius) {
+                    expected.add(other);
+                }
+            }
+            if (!expected.equals(interest.visibleTo(c))) mismatches++;
+            fanOut += interest.observersOf(c).size();
+        }
+        for (Character c : all) {
+            if (!c.isAlive() && !interest.visibleTo(c).isEmpty()) mismatches++; // removed characters see nobody
+        }
+        System.out.printf("population: %,d | avg observers: %.1f | enter: %,d | leave: %,d | mismatches: %d%n",
+                store.size(), (double) fanOut / Math.max(1, store.size()), transitions[0], transitions[1], mismatches);
+        if (mismatches > 0) System.exit(1);
+    }
+}
+
+// ---------------------------- REPLAY CHECK: record, then replay headless ----------------------------
+// Run with: java ReplayCheck            (records a scripted session in memory, then replays it)
+//       or: java ReplayCheck game.jrnl  (replays a journal from disk as a load test)
+class ReplayCheck {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            try (InputStream in = Files.newInputStream(Path.of(args[0]))) {
+                ReplayResult result = new SessionReplayer().replay(in);
+                System.out.println(result);
+                if (!result.matched()) System.exit(1);
+            }
+            return;
+        }
+
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        GameWorld world = new GameWorld(); // unseeded on purpose: the journal keeps the seed it drew
+        Random script = new Random(); // inputs vary run to run; the replay must follow whatever happened
+        List<Character> cast = new ArrayList<>();
+        try (SessionRecorder recorder = new SessionRecorder(world, journal, 10)) {
+            for (int i = 0; i < 3_000; i++) {
+                Character c;
+                switch (i % 3) {
+                    case 0: c = new Warrior("W" + i, script.nextInt(400), script.nextInt(400)); break;
+                    case 1: c = new Mage("M" + i, script.nextInt(400), script.nextInt(400)); break;
+                    default: c = new Archer("A" + i, script.nextInt(400), script.nextInt(400)); break;
+                }
+                cast.add(c);
+                recorder.spawn(c);
+                if (script.nextInt(4) == 0) recorder.pickUp(c, "Health Potion");
+            }
+            for (int t = 0; t < 200; t++) {
+                for (int k = 0; k < 20; k++) {
+                    Character c = cast.get(script.nextInt(cast.size()));
+                    if (!c.isAlive()) continue;
+                    if (script.nextBoolean()) recorder.useItem(c, "Health Potion");
+                    else recorder.setCombatStrategy(c, script.nextBoolean() ? new AggressiveStrategy() : new DefensiveStrategy());
+                }
+                recorder.tick();
+            }
+        }
+        long recordedHash = world.stateHash();
+        System.out.printf("journal: %,d bytes for %d ticks%n", journal.size(), world.getTickCount());
+
+        boolean ok = true;
+        int[] threads = { 1, 4 };
+        for (int parallelism : threads) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            ReplayResult result = new SessionReplayer(pool).replay(new ByteArrayInputStream(journal.toByteArray()));
+            pool.shutdown();
+            System.out.println(parallelism + " thread(s): " + result);
+            ok &= result.matched() && result.ticks == world.getTickCount();
+        }
+
+        // flipping a single recorded coordinate must be caught at the next hash check. The bit is
+        // worth 256 tiles: a one-tile nudge can be walked off before the first HASH record
+        byte[] corrupt = journal.toByteArray();
+        corrupt[4 + 1 + 8 + 4 + 1 + 1 + 2 + 2 + 2] ^= 1; // second-lowest byte of the first spawn's x ("W0")
+        ReplayResult tampered = new SessionReplayer().replay(new ByteArrayInputStream(corrupt));
+        System.out.println("tampered: " + tampered);
+        ok &= !tampered.matched();
+        System.out.println(ok ? "replay deterministic (final hash " + Long.toHexString(recordedHash) + ")" : "REPLAY MISMATCH");
+        if (!ok) System.exit(1);
+    }
+}
+
+// ---------------------------- SIMULATION (MAIN) ----------------------------
+public class GameApp {
+    public static void main(String[] args) {
+        System.out.println("🌍 Arcadia Realm — Simulation Start\n");
+
+        // everything that happens in the world is reported through an async text sink
+        GameEventSink events = new AsyncEventSink(new TextEventWriter(System.out), EventLevel.DEBUG, 1 << 12);
+        GameWorld world = new GameWorld();
+        world.setEventSink(events);
+
+        // Srimani joins as a Warrior
+        Character srimani = new Warrior("Srimani", 0, 0);
+
+        // Friends / enemies
+        Character archer = new Archer("Aditi", 3, 2);
+        Character mage = new Mage("Kiran", -2, -1);
+        Character orc = new Warrior("Orc Grunt", 5, 5); // enemy NPC warrior
+
+        world.addCharacter(srimani);
+        world.addCharacter(archer);
+        world.addCharacter(mage);
+        world.addCharacter(orc);
+
+        srimani.pickUp("Health Potion");
+        srimani.pickUp("Iron Sword");
+
+        // Srimani chooses Aggressive strategy
+        srimani.setCombatStrategy(new AggressiveStrategy());
+        // Aditi prefers Defensive
+        archer.setCombatStrategy(new DefensiveStrategy());
+        // Kiran the mage stays aggressive (default)
+
+        world.showStatus();
+
+        // Run several ticks of the world at a slow, readable fixed rate
+        TickScheduler scheduler = new TickScheduler(world, TimeUnit.MILLISECONDS.toNanos(600), OverrunPolicy.SKIP);
+        scheduler.run(6, () -> {
+            // srimani uses a potion if health low
+            if (srimani.isAlive() && srimani.getHealth() < 60) {
+                srimani.useItem("Health Potion");
+            }
+            world.showStatus();
+        });
+
+        events.close();
+        System.out.println("\n⏱️ " + scheduler.stats());
         System.out.println("\n🏁 Simulation ended. Final world state above.");
     }
 }
\ No newline at end of file